@@ -6,13 +6,34 @@
 
 package com.ezcloud.mcp.server;
 
+import com.ezcloud.mcp.server.config.CatalogReadiness;
+import com.ezcloud.mcp.server.config.ProductServerProperties;
+import com.ezcloud.mcp.server.config.ProductToolsRuntimeHints;
 import com.ezcloud.mcp.server.service.ProductService;
+import com.ezcloud.mcp.server.tool.BoundedToolExecutor;
+import com.ezcloud.mcp.server.tool.InstrumentedToolCallback;
+import com.ezcloud.mcp.server.tool.ReadinessGatedToolCallback;
+import com.ezcloud.mcp.server.tool.SerializedStdioTransportProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.Banner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Lazy;
+
+import javax.sql.DataSource;
+import java.util.List;
 
 /**
  * Main application class for the Spring AI MCP (Model Context Protocol) Server.
@@ -23,25 +44,59 @@ import org.springframework.context.annotation.Bean;
  *
  * The server runs in STDIO mode, communicating via standard input/output streams,
  * making it compatible with MCP clients that spawn the server as a subprocess.
+ * With the "http" profile it instead serves MCP over SSE, so that one long-lived
+ * instance can be shared by many clients (see application-http.yml).
+ *
+ * With spring.ai.mcp.server.type=SYNC (the default) the tools are registered as a
+ * ToolCallbackProvider. With ASYNC they are registered as async tool specifications
+ * that run on a bounded executor, so concurrent tool calls proceed in parallel.
+ * Either way every tool call is measured by an InstrumentedToolCallback.
+ *
+ * The application can be compiled to a GraalVM native image (native profile);
+ * ProductToolsRuntimeHints supplies the reflection metadata the tools need.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(ProductToolsRuntimeHints.class)
 public class McpServerApplication {
 
-	public static void main(String[] args) {
+	/**
+	 * Starts the server. With the STDIO transport the process lives as long as its
+	 * client: once stdin is closed and the calls in flight have been answered, or
+	 * product-server.shutdown.drain-timeout has passed, the context is closed
+	 * (releasing the connection pool and database) and the JVM exits. Calls still
+	 * running at that point are abandoned, and may fail rather than commit.
+	 * Without it, main returns once the context has started, and the server runs
+	 * on the transport's own threads until the process is stopped.
+	 */
+	public static void main(String[] args) throws InterruptedException {
 		var app = new SpringApplication(McpServerApplication.class);
 		app.setLogStartupInfo(false);
 		app.setBannerMode(Banner.Mode.OFF);
 
 		var context = app.run(args);
 
-		Runtime.getRuntime().addShutdownHook(new Thread(context::close));
-
-		try {
-			Thread.currentThread().join();
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
+		var stdio = context.getBeanProvider(SerializedStdioTransportProvider.class).getIfAvailable();
+		if (stdio != null) {
+			stdio.awaitEndOfInput();
+			System.exit(SpringApplication.exit(context));
 		}
+	}
 
+	/**
+	 * Provides the STDIO transport, replacing the auto-configured one.
+	 *
+	 * Unlike the SDK's, it never drops responses to concurrent tool calls, and when
+	 * stdin is closed it gives the calls in flight up to the drain timeout to
+	 * finish before main shuts down.
+	 *
+	 * @param properties The server settings (product-server.shutdown.*)
+	 * @return The STDIO transport provider picked up by the MCP server auto-configuration
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "stdio", havingValue = "true")
+	public SerializedStdioTransportProvider stdioServerTransport(ProductServerProperties properties) {
+		return new SerializedStdioTransportProvider(properties.getShutdown().getDrainTimeout());
 	}
 
 	/**
@@ -55,14 +110,92 @@ public class McpServerApplication {
 	 * - Search by category or price
 	 * - Add, update, and delete products
 	 *
+	 * The service is injected as a lazy proxy: the tool definitions only need its
+	 * class, so the tool list does not wait for the service, its repository or the
+	 * entity manager factory. Calls wait until the sample data is loaded.
+	 *
 	 * @param productService The service containing tool methods
+	 * @param readiness      Completes once the catalog can be queried
+	 * @param properties     The server settings (product-server.startup.*)
+	 * @param meterRegistry  The registry receiving the tool call metrics
 	 * @return A ToolCallbackProvider that exposes the service methods as MCP tools
 	 */
 	@Bean
-	public ToolCallbackProvider productTools(ProductService productService) {
-		return MethodToolCallbackProvider.builder()
+	@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+	public ToolCallbackProvider productTools(@Lazy ProductService productService, CatalogReadiness readiness,
+			ProductServerProperties properties, MeterRegistry meterRegistry) {
+		return ToolCallbackProvider.from(instrumentedTools(productService, readiness, properties, meterRegistry));
+	}
+
+	/**
+	 * Registers the ProductService methods as async MCP tools when the server type is ASYNC.
+	 *
+	 * The tools are the same as in SYNC mode, but each call is offloaded to the
+	 * toolExecutor instead of a shared unbounded scheduler, so blocking JPA calls
+	 * run in parallel up to the configured limits.
+	 *
+	 * @param productService The service containing tool methods
+	 * @param readiness      Completes once the catalog can be queried
+	 * @param properties     The server settings (product-server.startup.*)
+	 * @param toolExecutor   The bounded executor running the tool calls
+	 * @param meterRegistry  The registry receiving the tool call metrics
+	 * @return The async tool specifications picked up by the MCP server auto-configuration
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+	public List<McpServerFeatures.AsyncToolSpecification> asyncProductTools(@Lazy ProductService productService,
+			CatalogReadiness readiness, ProductServerProperties properties, BoundedToolExecutor toolExecutor,
+			MeterRegistry meterRegistry) {
+		return toolExecutor.toAsyncToolSpecifications(
+				instrumentedTools(productService, readiness, properties, meterRegistry).toArray(ToolCallback[]::new));
+	}
+
+	private static List<ToolCallback> instrumentedTools(ProductService productService, CatalogReadiness readiness,
+			ProductServerProperties properties, MeterRegistry meterRegistry) {
+		var callbacks = MethodToolCallbackProvider.builder()
 				.toolObjects(productService)
-				.build();
+				.build()
+				.getToolCallbacks();
+		var gated = ReadinessGatedToolCallback.gate(readiness.whenReady(),
+				properties.getStartup().getReadyTimeout(), callbacks);
+		return InstrumentedToolCallback.instrument(meterRegistry, gated.toArray(ToolCallback[]::new));
+	}
+
+	/**
+	 * Keeps the MCP server itself eager under spring.main.lazy-initialization
+	 * (the lazy-data profile), so the transport starts answering during startup
+	 * instead of never being created.
+	 *
+	 * @return A filter excluding the MCP server beans from lazy initialization
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter mcpServerEagerInit() {
+		return LazyInitializationExcludeFilter.forBeanTypes(McpSyncServer.class, McpAsyncServer.class);
+	}
+
+	/**
+	 * Creates the executor that runs async tool calls.
+	 *
+	 * By default calls run on a fixed pool of platform threads. With
+	 * product-server.async.virtual-threads=true (Java 21+) each call gets its own
+	 * virtual thread, and the number executing at once is capped at the Hikari
+	 * connection pool size, since every tool call needs a connection.
+	 *
+	 * @param properties The server settings (product-server.async.*)
+	 * @param dataSource The application's connection pool
+	 * @return A bounded executor with an in-flight call limit
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+	public BoundedToolExecutor toolExecutor(ProductServerProperties properties, DataSource dataSource) {
+		var async = properties.getAsync();
+		if (async.isVirtualThreads()) {
+			int connections = dataSource instanceof HikariDataSource hikari
+					? hikari.getMaximumPoolSize()
+					: async.getThreads();
+			return BoundedToolExecutor.virtualThreads(connections, async.getMaxInFlight());
+		}
+		return BoundedToolExecutor.platformThreads(async.getThreads(), async.getMaxInFlight());
 	}
 
 }
@@ -0,0 +1,44 @@
+package com.ezcloud.mcp.server.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Signals when the product catalog is ready to serve tool calls.
+ *
+ * The STDIO transport starts answering requests while the application is still
+ * starting, and with the lazy-data profile the database only comes up after the
+ * tool list is already being served. DataInitializer marks the catalog ready once
+ * the sample data is saved, and tool calls wait for that, so no call sees (or
+ * caches a response built from) a catalog that is still empty.
+ */
+@Component
+public class CatalogReadiness {
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /**
+     * Marks the catalog ready, releasing every tool call waiting for it.
+     */
+    public void markReady() {
+        ready.complete(null);
+    }
+
+    /**
+     * Marks the catalog as never becoming ready; waiting tool calls fail.
+     *
+     * @param cause Why the catalog could not be loaded
+     */
+    public void markFailed(Throwable cause) {
+        ready.completeExceptionally(cause);
+    }
+
+    /**
+     * @return A future that completes once the catalog is ready
+     */
+    public Future<Void> whenReady() {
+        return ready;
+    }
+}
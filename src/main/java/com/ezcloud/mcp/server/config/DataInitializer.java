@@ -15,14 +15,18 @@ import java.util.List;
  * in-memory H2 database with sample products across different categories.
  * This provides immediate data for testing and demonstrating the MCP tools.
  *
- * Since the database is in-memory (H2 with create-drop), this data is
- * recreated fresh each time the server starts.
+ * By default the database is in-memory (H2 with create-drop), so this data is
+ * recreated fresh each time the server starts. With the persistent profile the
+ * catalog survives restarts, and the sample data is only saved into an empty store.
+ *
+ * Tool calls wait until the data is saved (see CatalogReadiness), since the MCP
+ * transport may already be accepting them while the database is being filled.
  */
 @Configuration
 public class DataInitializer {
 
     /**
-     * Creates a CommandLineRunner bean that populates the database on startup.
+     * Creates a CommandLineRunner bean that populates an empty database on startup.
      *
      * Sample data includes products across four categories:
      * - Electronics: Laptop, Mouse, Keyboard
@@ -31,10 +35,11 @@ public class DataInitializer {
      * - Appliances: Kitchen appliances
      *
      * @param repository The ProductRepository for saving products
+     * @param readiness  Marked ready once the products are saved
      * @return A CommandLineRunner that initializes sample data
      */
     @Bean
-    CommandLineRunner initDatabase(ProductRepository repository) {
+    CommandLineRunner initDatabase(ProductRepository repository, CatalogReadiness readiness) {
         return args -> {
             var products = List.of(
                     new Product("Laptop", "Electronics", 999.99, 15),
@@ -48,7 +53,15 @@ public class DataInitializer {
                     new Product("Blender", "Appliances", 49.99, 35),
                     new Product("Toaster", "Appliances", 29.99, 45)
             );
-            repository.saveAll(products);
+            try {
+                if (repository.count() == 0) {
+                    repository.saveAll(products);
+                }
+            } catch (RuntimeException e) {
+                readiness.markFailed(e);
+                throw e;
+            }
+            readiness.markReady();
         };
     }
 }
@@ -0,0 +1,250 @@
+package com.ezcloud.mcp.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tunable settings for the product inventory MCP server.
+ *
+ * Bound from the "product-server" section of application.yml. Every setting
+ * has a sensible default, so the section can be omitted entirely.
+ */
+@Data
+@ConfigurationProperties(prefix = "product-server")
+public class ProductServerProperties {
+
+    /**
+     * Settings for the cursor-based product listing tool.
+     */
+    private final Paging paging = new Paging();
+
+    /**
+     * Settings for the bulk addProducts/upsertProducts tools.
+     */
+    private final Bulk bulk = new Bulk();
+
+    /**
+     * Settings for tool execution when spring.ai.mcp.server.type is ASYNC.
+     */
+    private final Async async = new Async();
+
+    /**
+     * Settings for the read-through product cache.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Settings for the cache of rendered read-tool responses.
+     */
+    private final ResponseCache responseCache = new ResponseCache();
+
+    /**
+     * Settings for where the read tools get their data.
+     */
+    private final Store store = new Store();
+
+    /**
+     * Settings for the searchProductsByName tool.
+     */
+    private final NameSearch nameSearch = new NameSearch();
+
+    /**
+     * Settings for exporting tool call metrics.
+     */
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Settings for how tool calls behave while the server is starting.
+     */
+    private final Startup startup = new Startup();
+
+    /**
+     * Settings for stopping the server when an STDIO client disconnects.
+     */
+    private final Shutdown shutdown = new Shutdown();
+
+    @Data
+    public static class Paging {
+
+        /**
+         * Number of products returned when the client does not ask for a page size.
+         */
+        private int defaultPageSize = 50;
+
+        /**
+         * Upper bound on the page size a client may request, which caps the
+         * size of a single tool response.
+         */
+        private int maxPageSize = 500;
+    }
+
+    @Data
+    public static class Bulk {
+
+        /**
+         * Maximum number of products accepted by a single bulk tool call.
+         */
+        private int maxProducts = 10_000;
+
+        /**
+         * Number of products flushed to the database at a time. The persistence
+         * context is cleared after each chunk, so memory use is bounded by the chunk
+         * size rather than the request size. Best kept a multiple of
+         * hibernate.jdbc.batch_size.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Number of threads running tool calls. Tool calls block on JDBC, so there
+         * is little point in exceeding the connection pool size.
+         */
+        private int threads = 10;
+
+        /**
+         * Maximum number of tool calls admitted at once, running or waiting for a
+         * thread. Calls beyond this limit fail immediately with a "server busy" error
+         * instead of queueing without bound.
+         */
+        private int maxInFlight = 64;
+
+        /**
+         * Run each tool call on its own virtual thread instead of the fixed pool.
+         * Requires Java 21 or later. The number of calls executing at once is then
+         * capped at the JDBC connection pool size, and "threads" is ignored.
+         */
+        private boolean virtualThreads = false;
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether read tools are served from the cache. When disabled every call
+         * goes to the database.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long an entry may be served after it was loaded. Writes made through
+         * the MCP tools evict affected entries immediately; the TTL bounds staleness
+         * for changes made by other means.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of products cached by ID.
+         */
+        private long maxProducts = 10_000;
+
+        /**
+         * Maximum total number of rows held across all cached category and
+         * price results.
+         */
+        private long maxRows = 100_000;
+
+        /**
+         * Results larger than this are not cached; such queries are streamed from
+         * the database instead.
+         */
+        private int maxRowsPerEntry = 1_000;
+    }
+
+    @Data
+    public static class ResponseCache {
+
+        /**
+         * Whether identical read-tool calls against an unchanged catalog return
+         * the previously rendered response. Entries expire after cache.ttl.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum total number of characters held across all cached responses.
+         */
+        private long maxChars = 16_000_000;
+
+        /**
+         * Responses longer than this are rendered on every call and never cached.
+         */
+        private int maxEntryChars = 1_000_000;
+    }
+
+    @Data
+    public static class Store {
+
+        /**
+         * Backend of the read tools other than getAllProducts and getProductsPage.
+         * JPA queries the database through the caches; COLUMNAR keeps the whole
+         * catalog in memory as primitive columns, written through from the tools.
+         */
+        private StoreType type = StoreType.JPA;
+    }
+
+    public enum StoreType {
+
+        /**
+         * Read from the database, through the product and response caches.
+         */
+        JPA,
+
+        /**
+         * Scan an in-memory columnar copy of the catalog (ColumnarProductStore).
+         */
+        COLUMNAR
+    }
+
+    @Data
+    public static class NameSearch {
+
+        /**
+         * Whether product names are searched through an in-memory inverted index
+         * of their words (ProductNameIndex), which ranks results and tolerates
+         * prefixes and typos. When false, names must contain every query
+         * word, matched with a substring query against the database. The index is loaded at startup and holds
+         * about 60-270 bytes of heap per product.
+         */
+        private boolean index;
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Port of a loopback HTTP endpoint serving the metrics in Prometheus text
+         * format at /metrics. Not started when unset; STDIO is never used for metrics.
+         */
+        private Integer prometheusPort;
+
+        /**
+         * Address the Prometheus endpoint binds to.
+         */
+        private String prometheusAddress = "127.0.0.1";
+    }
+
+    @Data
+    public static class Startup {
+
+        /**
+         * How long a tool call made before the catalog is loaded waits for it.
+         * Calls still waiting after this are answered with an error result.
+         */
+        private Duration readyTimeout = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Shutdown {
+
+        /**
+         * How long tool calls already received may take to send their responses
+         * once the client closes stdin. The server then closes the database and
+         * exits, abandoning calls that are still running.
+         */
+        private Duration drainTimeout = Duration.ofSeconds(5);
+    }
+}
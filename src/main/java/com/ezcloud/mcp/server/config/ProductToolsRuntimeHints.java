@@ -0,0 +1,35 @@
+package com.ezcloud.mcp.server.config;
+
+import com.ezcloud.mcp.server.service.ProductService;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Reachability metadata for running the server as a GraalVM native image.
+ *
+ * Spring AOT covers the beans and the Product entity, and the native profile adds
+ * the GraalVM reachability metadata for Hibernate, H2 and Caffeine. What is left
+ * are the tools themselves: MethodToolCallbackProvider invokes the @Tool methods of
+ * ProductService reflectively, derives the input schema from their parameter types,
+ * and Jackson binds the arguments, so each parameter type (e.g. ProductSpec inside
+ * List&lt;ProductSpec&gt;) is registered for binding. The logging configuration is
+ * loaded from the classpath and is registered as a resource.
+ */
+public class ProductToolsRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        var bindings = new BindingReflectionHintsRegistrar();
+        for (var method : ReflectionUtils.getDeclaredMethods(ProductService.class)) {
+            if (method.isAnnotationPresent(Tool.class)) {
+                hints.reflection().registerMethod(method, ExecutableMode.INVOKE);
+                bindings.registerReflectionHints(hints.reflection(), method.getGenericParameterTypes());
+            }
+        }
+        hints.resources().registerPattern("logback-spring.xml");
+    }
+}
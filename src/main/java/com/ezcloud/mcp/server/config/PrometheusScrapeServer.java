@@ -0,0 +1,83 @@
+package com.ezcloud.mcp.server.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the metrics in Prometheus text format on a loopback HTTP port.
+ *
+ * The STDIO server has no web server and its stdout belongs to the MCP protocol,
+ * so this small JDK HTTP server exposes GET /metrics on its own port instead.
+ * It only starts when product-server.metrics.prometheus-port is set.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product-server.metrics", name = "prometheus-port")
+public class PrometheusScrapeServer implements SmartLifecycle {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusMeterRegistry registry;
+
+    private final InetSocketAddress address;
+
+    private HttpServer server;
+
+    public PrometheusScrapeServer(PrometheusMeterRegistry registry, ProductServerProperties properties) {
+        var settings = properties.getMetrics();
+        this.registry = registry;
+        this.address = new InetSocketAddress(settings.getPrometheusAddress(), settings.getPrometheusPort());
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind the Prometheus endpoint to " + address, e);
+        }
+        server.createContext("/metrics", this::scrape);
+        server.start();
+    }
+
+    private void scrape(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            var body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return The port the endpoint is listening on, useful when configured as 0
+     */
+    public synchronized int getPort() {
+        return server.getAddress().getPort();
+    }
+}
@@ -1,12 +1,19 @@
 package com.ezcloud.mcp.server.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Locale;
 
 /**
  * JPA Entity representing a product in the inventory.
@@ -19,19 +26,36 @@ import lombok.NoArgsConstructor;
  * - Getters and setters for all fields
  * - equals() and hashCode() methods
  * - toString() method
+ *
+ * The table is indexed for the most frequent tool queries: the category tools
+ * (equality or prefix on the lower-cased categoryKey), findProductsUnderPrice
+ * and findProductsInPriceRange (price range, read in index order up to the
+ * limit) and lookups that filter by category and price together, which the
+ * composite index serves with a single range seek. The name index serves
+ * upsertProducts, which matches incoming rows to existing products by name.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_key", columnList = "category_key"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_category_key_price", columnList = "category_key, price"),
+        @Index(name = "idx_products_name", columnList = "name")
+})
 @Data
 @NoArgsConstructor
 public class Product {
 
     /**
      * Unique identifier for the product.
-     * Auto-generated by the database using identity strategy.
+     *
+     * Generated from the "products_seq" sequence using Hibernate's pooled optimizer:
+     * each sequence call reserves a block of 50 IDs, so IDs are known before the
+     * INSERT runs. Unlike IDENTITY columns, this lets Hibernate group inserts into
+     * JDBC batches (see hibernate.jdbc.batch_size in application.yml).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -45,6 +69,16 @@ public class Product {
      */
     private String category;
 
+    /**
+     * The category in lower case, kept in step with category by its setter.
+     *
+     * Category searches compare this column, so "electronics", "Electronics" and
+     * "ELECTRONICS" are one indexed lookup, and a prefix search is one index range.
+     */
+    @Column(name = "category_key")
+    @Setter(AccessLevel.NONE)
+    private String categoryKey;
+
     /**
      * The price of the product in USD.
      */
@@ -66,8 +100,28 @@ public class Product {
      */
     public Product(String name, String category, Double price, Integer stock) {
         this.name = name;
-        this.category = category;
+        setCategory(category);
         this.price = price;
         this.stock = stock;
     }
+
+    /**
+     * Sets the category and its lower-cased search key.
+     *
+     * @param category The product category
+     */
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryKey = normalizeCategory(category);
+    }
+
+    /**
+     * Turns a category, or a category prefix, into the form stored in categoryKey.
+     *
+     * @param category The category as given by a client or stored on a product
+     * @return The category lower-cased with the root locale, or null for null
+     */
+    public static String normalizeCategory(String category) {
+        return category == null ? null : category.toLowerCase(Locale.ROOT);
+    }
 }
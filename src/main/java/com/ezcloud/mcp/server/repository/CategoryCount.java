@@ -0,0 +1,11 @@
+package com.ezcloud.mcp.server.repository;
+
+/**
+ * The number of products in one category, as returned by
+ * {@link ProductRepository#countProductsPerCategory()}.
+ *
+ * @param category The category name
+ * @param products The number of products in the category
+ */
+public record CategoryCount(String category, long products) {
+}
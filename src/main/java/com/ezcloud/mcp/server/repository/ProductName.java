@@ -0,0 +1,10 @@
+package com.ezcloud.mcp.server.repository;
+
+/**
+ * The ID and name of a product, as returned by {@link ProductRepository#streamNames()}.
+ *
+ * @param id   The product ID
+ * @param name The product name
+ */
+public record ProductName(Long id, String name) {
+}
@@ -1,10 +1,25 @@
 package com.ezcloud.mcp.server.repository;
 
 import com.ezcloud.mcp.server.entity.Product;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA Repository for Product entities.
@@ -16,18 +31,72 @@ import java.util.List;
  * which automatically generates the appropriate SQL queries.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
     /**
-     * Finds all products matching the specified category.
+     * JDBC fetch size used by the streaming queries below.
+     *
+     * Large enough to amortise driver round trips, small enough that only a
+     * bounded window of rows is buffered at any time.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Finds all products matching the specified category, ignoring case.
      *
      * Spring Data automatically implements this method based on the naming convention:
-     * "findBy" + "Category" maps to: SELECT * FROM products WHERE category = ?
+     * "findBy" + "CategoryKey" maps to: SELECT * FROM products WHERE category_key = ?
      *
-     * @param category The category to search for (case-sensitive)
+     * @param categoryKey The category to search for, normalized with Product.normalizeCategory
      * @return List of products in the specified category
      */
-    List<Product> findByCategory(String category);
+    List<Product> findByCategoryKey(String categoryKey);
+
+    /**
+     * Finds at most {@code limit} products in the specified category, ignoring case.
+     *
+     * Used by the product cache to load a result only if it is small enough to
+     * be worth caching: asking for one row more than the cache accepts reveals
+     * whether the category is larger, without reading all of it.
+     *
+     * @param categoryKey The category to search for, normalized with Product.normalizeCategory
+     * @param limit       The maximum number of products to return
+     * @return Up to {@code limit} products in the specified category
+     */
+    List<Product> findByCategoryKey(String categoryKey, Limit limit);
+
+    /**
+     * Finds the first products in any of the given categories, ignoring case, in ID order.
+     *
+     * @param categoryKeys The categories to search for, normalized with Product.normalizeCategory
+     * @param limit        The maximum number of products to return
+     * @return Up to {@code limit} products in those categories
+     */
+    List<Product> findByCategoryKeyInOrderByIdAsc(Collection<String> categoryKeys, Limit limit);
+
+    /**
+     * Finds the first products whose category starts with a prefix, ignoring case, in ID order.
+     *
+     * "category_key LIKE 'prefix%'" (with wildcards in the prefix escaped) is a
+     * single range seek on idx_products_category_key.
+     *
+     * @param prefix The category prefix, normalized with Product.normalizeCategory
+     * @param limit  The maximum number of products to return
+     * @return Up to {@code limit} products in the matching categories
+     */
+    List<Product> findByCategoryKeyStartingWithOrderByIdAsc(String prefix, Limit limit);
+
+    /**
+     * Counts the products in each category, reading only idx_products_category_key.
+     *
+     * Spellings of a category that differ only in case are counted together,
+     * under the first of them in sort order.
+     *
+     * @return One count per distinct category, ordered by category key
+     */
+    @Query("select new com.ezcloud.mcp.server.repository.CategoryCount(min(p.category), count(p)) " +
+            "from Product p group by p.categoryKey order by p.categoryKey")
+    List<CategoryCount> countProductsPerCategory();
 
     /**
      * Finds all products with a price below the specified threshold.
@@ -39,4 +108,152 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return List of products priced below the threshold
      */
     List<Product> findByPriceLessThan(Double price);
+
+    /**
+     * Finds at most {@code limit} products priced below the threshold.
+     *
+     * Bounded counterpart of {@link #findByPriceLessThan(Double)}, used by the
+     * product cache in the same way as {@link #findByCategoryKey(String, Limit)}.
+     *
+     * @param price The maximum price threshold (exclusive)
+     * @param limit The maximum number of products to return
+     * @return Up to {@code limit} products priced below the threshold
+     */
+    List<Product> findByPriceLessThan(Double price, Limit limit);
+
+    /**
+     * Finds the first products in a price range, in the order given by the pageable.
+     *
+     * "price BETWEEN ? AND ? ORDER BY price LIMIT n" walks idx_products_price from
+     * one end of the range and stops after n rows, so it reads no more of a large
+     * range than it returns. No count query is issued.
+     *
+     * @param minPrice The inclusive lower bound
+     * @param maxPrice The inclusive upper bound
+     * @param pageable The number of products and their sort order; the page number should be 0
+     * @return Up to the page size of products in the range
+     */
+    List<Product> findByPriceBetween(Double minPrice, Double maxPrice, Pageable pageable);
+
+    /**
+     * Finds the first products of a category in a price range, as
+     * {@link #findByPriceBetween(Double, Double, Pageable)} does, using the
+     * composite idx_products_category_key_price index.
+     *
+     * @param categoryKey The category to search for, normalized with Product.normalizeCategory
+     * @param minPrice    The inclusive lower bound
+     * @param maxPrice    The inclusive upper bound
+     * @param pageable    The number of products and their sort order; the page number should be 0
+     * @return Up to the page size of products in the category and range
+     */
+    List<Product> findByCategoryKeyAndPriceBetween(String categoryKey, Double minPrice, Double maxPrice,
+                                                   Pageable pageable);
+
+    /**
+     * Finds all products whose name is one of the given names.
+     *
+     * Used by the upsert tool to resolve a whole chunk of rows with one
+     * "WHERE name IN (...)" query instead of one lookup per row.
+     *
+     * @param names The product names to look up (case-sensitive)
+     * @return Every product with a matching name, possibly several per name
+     */
+    List<Product> findByNameIn(Collection<String> names);
+
+    /**
+     * Finds the first products, in ID order, whose name contains every given word, ignoring case.
+     *
+     * "LOWER(name) LIKE '%word%' AND ..." cannot use an index, so this scans the
+     * table; it is what searchProductsByName falls back to without the name index.
+     *
+     * @param words The words to look for (wildcards in them are escaped)
+     * @param limit The maximum number of products to return
+     * @return Up to the limit of matching products
+     */
+    default List<Product> findByNameContainingAllIgnoreCase(Collection<String> words, Limit limit) {
+        return findBy(nameContainingAll(words), query -> query.sortBy(Sort.by("id")).limit(limit.max()).all());
+    }
+
+    private static Specification<Product> nameContainingAll(Collection<String> words) {
+        return (root, query, builder) -> builder.and(words.stream()
+                .map(word -> builder.like(builder.lower(root.get("name")),
+                        "%" + EscapeCharacter.DEFAULT.escape(word.toLowerCase(Locale.ROOT)) + "%",
+                        EscapeCharacter.DEFAULT.getEscapeCharacter()))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Fetches the next slice of products after the given ID, ordered by ID.
+     *
+     * This is a keyset (seek) query: "WHERE id > ? ORDER BY id LIMIT n+1".
+     * It uses the primary key index, so its cost is independent of how deep
+     * into the catalog the client has paged, unlike an OFFSET-based page.
+     * The extra row is only used to tell whether another slice follows.
+     *
+     * @param id       The exclusive lower bound (the last ID already returned)
+     * @param pageable The slice size; the page number should always be 0
+     * @return The next slice of products and whether more remain
+     */
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams every product instead of materialising the whole table as a List.
+     *
+     * Rows are pulled from the JDBC result set in batches of {@link #STREAM_FETCH_SIZE}
+     * as the stream is consumed, and are loaded read-only so Hibernate keeps no
+     * dirty-checking snapshots. The stream must be consumed inside a transaction
+     * and closed afterwards (try-with-resources); callers should detach each
+     * entity once processed so the persistence context does not grow.
+     *
+     * @return A lazily-populated stream of all products
+     */
+    @Query("select p from Product p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAll();
+
+    /**
+     * Streams every product in ascending ID order.
+     *
+     * Used to load the columnar product store, which keeps its rows sorted by ID.
+     * Same transaction and close requirements as {@link #streamAll()}.
+     *
+     * @return A lazily-populated stream of all products, ordered by ID
+     */
+    @Query("select p from Product p order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllOrderedById();
+
+    /**
+     * Streams the ID and name of every product, in ascending ID order.
+     *
+     * Used to load the product name index, which needs nothing else; selecting
+     * two columns creates no entities, so nothing needs detaching. Same
+     * transaction and close requirements as {@link #streamAll()}.
+     *
+     * @return A lazily-populated stream of product IDs and names
+     */
+    @Query("select new com.ezcloud.mcp.server.repository.ProductName(p.id, p.name) from Product p order by p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<ProductName> streamNames();
+
+    /**
+     * Streams all products matching the specified category, ignoring case.
+     *
+     * Streaming counterpart of {@link #findByCategoryKey(String)}, with the same
+     * transaction and close requirements as {@link #streamAll()}.
+     *
+     * @param categoryKey The category to search for, normalized with Product.normalizeCategory
+     * @return A lazily-populated stream of products in the specified category
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamByCategoryKey(String categoryKey);
 }
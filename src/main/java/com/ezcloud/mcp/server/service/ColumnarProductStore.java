@@ -0,0 +1,696 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.CategoryCount;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory, column-oriented copy of the catalog serving the read-only tools.
+ *
+ * Enabled with product-server.store.type=columnar. Each product field is held in
+ * its own array, indexed by row:
+ * - ids (long, ascending), prices (double) and stocks (int)
+ * - categories as int codes into a dictionary of the distinct category names,
+ *   so each category string is held once rather than once per product
+ * - names (String)
+ * A price search compares one double per row, in a plain loop over a contiguous
+ * array with no per-row objects, so a scan of a million products reads 8 MB
+ * sequentially. Only matching rows are turned into (detached) Product objects,
+ * for rendering.
+ *
+ * Each category code also has a posting list: a RoaringBitmap of the rows in
+ * that category. A category search walks its bitmap instead of the whole column,
+ * a search over several categories walks the union of theirs, and a category's
+ * product count is its bitmap's cardinality. Category searches ignore case: a
+ * sorted map from the lower-cased category (Product.normalizeCategory) to the
+ * codes of its spellings finds a category, or every category with a given
+ * prefix, in one lookup. Row numbers change when rows are
+ * inserted out of ID order or tombstones are compacted; the bitmaps are then
+ * rebuilt from the category column.
+ *
+ * Price ranges are answered from a price index: the rows with a price, ordered
+ * by price and then ID, in an int array. Two binary searches find the range, and
+ * the cheapest (or dearest) N products are the first (or last) N entries in it,
+ * so the cost does not depend on the catalog size unless a category filter has
+ * to skip many rows. A write moves one entry, shifting the entries after it.
+ *
+ * The catalog is loaded from the database on first use, or when the application
+ * is ready, and then kept current by write-through: ProductService writes to JPA
+ * as before, and each committed ProductChangedEvent is applied to the columns.
+ * Changes made to the database by other means are not seen until a restart.
+ * Reads inside a read-write transaction must go to the database instead (see
+ * {@link #canServe()}), so that they see the transaction's own uncommitted writes.
+ *
+ * Deleted rows stay behind as tombstones (category code -1, price NaN) that no
+ * scan matches, and are squeezed out once they make up a quarter of the rows
+ * (and number more than a thousand).
+ */
+@Component
+@ConditionalOnProperty(prefix = "product-server.store", name = "type", havingValue = "columnar")
+public class ColumnarProductStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Category code of a deleted row.
+     */
+    private static final int DELETED = -1;
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+
+    private String[] categoryNames = new String[64];
+
+    /**
+     * The codes of each category, by lower-cased name; usually one code per key,
+     * more if the catalog spells a category with different cases.
+     */
+    private final NavigableMap<String, int[]> codesByKey = new TreeMap<>();
+
+    /**
+     * The rows of each category code, indexed like categoryNames.
+     */
+    private RoaringBitmap[] postings = new RoaringBitmap[64];
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    private int[] categories = new int[INITIAL_CAPACITY];
+
+    private double[] prices = new double[INITIAL_CAPACITY];
+
+    private int[] stocks = new int[INITIAL_CAPACITY];
+
+    /**
+     * The price index: live rows with a price, ordered by price and then row,
+     * which is ID order. Its first {@link #priced} entries are in use.
+     */
+    private int[] priceOrder = new int[INITIAL_CAPACITY];
+
+    private int priced;
+
+    /**
+     * Rows in use, tombstones included.
+     */
+    private int rows;
+
+    private int deleted;
+
+    private volatile boolean loaded;
+
+    public ColumnarProductStore(ProductRepository productRepository, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Whether the store may answer a read on the current thread. Inside a
+     * read-write transaction it may not, as it only reflects committed changes.
+     *
+     * @return true outside transactions and inside read-only ones
+     */
+    public boolean canServe() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Looks up a product by ID.
+     *
+     * @param id The product ID
+     * @return A detached copy of the product, or empty if no product has this ID
+     */
+    public Optional<Product> findById(long id) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int row = rowOf(id);
+            return row < 0 || categories[row] == DELETED ? Optional.empty() : Optional.of(product(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products in a category.
+     *
+     * @param category The category (case-insensitive)
+     * @return Detached copies of the matching products, in ID order
+     */
+    public List<Product> findByCategory(String category) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var codes = codesOf(category);
+            if (codes == null) {
+                return List.of();
+            }
+            return products(codes.length == 1 ? postings[codes[0]] : union(codes, new RoaringBitmap()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products in any of several categories.
+     *
+     * @param categories The categories (case-insensitive); unknown ones are ignored
+     * @param limit      The maximum number of products to return
+     * @return Detached copies of the first matching products, in ID order
+     */
+    public List<Product> findByCategoryIn(Collection<String> categories, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var rows = new RoaringBitmap();
+            for (var category : categories) {
+                var codes = codesOf(category);
+                if (codes != null) {
+                    union(codes, rows);
+                }
+            }
+            return products(rows, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products whose category starts with a prefix.
+     *
+     * @param prefix The category prefix (case-insensitive)
+     * @param limit  The maximum number of products to return
+     * @return Detached copies of the first matching products, in ID order
+     */
+    public List<Product> findByCategoryPrefix(String prefix, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var key = Product.normalizeCategory(prefix);
+            if (key == null) {
+                return List.of();
+            }
+            var rows = new RoaringBitmap();
+            for (var entry : codesByKey.tailMap(key, true).entrySet()) {
+                if (!entry.getKey().startsWith(key)) {
+                    break;
+                }
+                union(entry.getValue(), rows);
+            }
+            return products(rows, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the products in each category from the posting lists.
+     *
+     * Spellings of a category that differ only in case are counted together,
+     * under the first of them in sort order, as the database query does.
+     *
+     * @return The categories that have products, with their counts, ordered by lower-cased name
+     */
+    public List<CategoryCount> countByCategory() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var counts = new ArrayList<CategoryCount>();
+            for (var codes : codesByKey.values()) {
+                String name = null;
+                int count = 0;
+                for (int code : codes) {
+                    int products = postings[code].getCardinality();
+                    if (products > 0) {
+                        count += products;
+                        name = name == null || categoryNames[code].compareTo(name) < 0 ? categoryNames[code] : name;
+                    }
+                }
+                if (count > 0) {
+                    counts.add(new CategoryCount(name, count));
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products priced below a threshold.
+     *
+     * @param maxPrice The exclusive price threshold
+     * @return Detached copies of the matching products, in ID order
+     */
+    public List<Product> findByPriceLessThan(double maxPrice) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var prices = this.prices;
+            var matches = new ArrayList<Product>();
+            for (int row = 0, end = rows; row < end; row++) {
+                // Tombstones hold NaN, which compares false
+                if (prices[row] < maxPrice) {
+                    matches.add(product(row));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the products in a price range, in price order, from the price index.
+     *
+     * Products with the same price are returned in ID order (reversed when descending).
+     *
+     * @param minPrice   The inclusive lower bound, or negative infinity
+     * @param maxPrice   The inclusive upper bound, or positive infinity
+     * @param category   The category to restrict to (case-insensitive), or null for all
+     * @param descending Whether to start from the most expensive product
+     * @param limit      The maximum number of products to return
+     * @return Detached copies of the first matching products
+     */
+    public List<Product> findByPriceBetween(double minPrice, double maxPrice, String category,
+                                            boolean descending, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            boolean[] wanted = null;
+            if (category != null) {
+                var codes = codesOf(category);
+                if (codes == null) {
+                    return List.of();
+                }
+                wanted = new boolean[categoryCodes.size()];
+                for (int code : codes) {
+                    wanted[code] = true;
+                }
+            }
+            int from = pricePosition(minPrice, Integer.MIN_VALUE);
+            int to = pricePosition(maxPrice, Integer.MAX_VALUE);
+            var matches = new ArrayList<Product>(Math.max(0, Math.min(limit, to - from)));
+            int step = descending ? -1 : 1;
+            for (int i = descending ? to - 1 : from; i >= from && i < to && matches.size() < limit; i += step) {
+                int row = priceOrder[i];
+                if (wanted == null || wanted[categories[row]]) {
+                    matches.add(product(row));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of products in the store
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return rows - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the catalog once the application has started, rather than on the first read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Applies a committed product change to the columns.
+     *
+     * Before the catalog is loaded the change is ignored, since the load reads
+     * it from the database. A change committed while the load runs waits for it
+     * and is then applied; applying a change the load already saw is harmless.
+     * Runs before ToolResponseCache moves to a new catalog version.
+     *
+     * @param event The committed change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            if (event.after() == null) {
+                delete(event.id());
+            } else {
+                upsert(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (var products = productRepository.streamAllOrderedById()) {
+                    products.forEach(product -> {
+                        entityManager.detach(product);
+                        upsert(product);
+                    });
+                }
+            });
+            buildPriceIndex();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a product into its row. While the catalog is loading the price index
+     * is left alone, and built in one go afterwards.
+     */
+    private void upsert(Product product) {
+        int row = rowOf(product.getId());
+        boolean live = false;
+        boolean indexed = false;
+        if (row < 0) {
+            row = insertRow(-(row + 1), product.getId());
+        } else if (categories[row] == DELETED) {
+            deleted--;
+        } else {
+            live = true;
+            indexed = !Double.isNaN(prices[row]);
+        }
+        double price = product.getPrice() == null ? Double.NaN : product.getPrice();
+        if (indexed && prices[row] != price) {
+            unindexPrice(row);
+            indexed = false;
+        }
+        int category = categoryCode(product.getCategory());
+        if (live && categories[row] != category) {
+            postings[categories[row]].remove(row);
+        }
+        if (!live || categories[row] != category) {
+            postings[category].add(row);
+        }
+        names[row] = product.getName();
+        categories[row] = category;
+        prices[row] = price;
+        stocks[row] = product.getStock() == null ? 0 : product.getStock();
+        if (loaded && !indexed && !Double.isNaN(price)) {
+            indexPrice(row);
+        }
+    }
+
+    private void delete(long id) {
+        int row = rowOf(id);
+        if (row < 0 || categories[row] == DELETED) {
+            return;
+        }
+        if (!Double.isNaN(prices[row])) {
+            unindexPrice(row);
+        }
+        postings[categories[row]].remove(row);
+        names[row] = null;
+        categories[row] = DELETED;
+        prices[row] = Double.NaN;
+        deleted++;
+        if (deleted > INITIAL_CAPACITY && deleted > rows / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * @return The row holding this ID, or (-(insertion point) - 1) if there is none
+     */
+    private int rowOf(long id) {
+        return Arrays.binarySearch(ids, 0, rows, id);
+    }
+
+    /**
+     * Opens a row for a new ID at its sorted position. IDs come from a sequence,
+     * so this nearly always appends; otherwise the later rows are shifted up.
+     */
+    private int insertRow(int position, long id) {
+        if (rows == ids.length) {
+            int capacity = rows + (rows >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stocks = Arrays.copyOf(stocks, capacity);
+            priceOrder = Arrays.copyOf(priceOrder, capacity);
+        }
+        if (position < rows) {
+            int moved = rows - position;
+            System.arraycopy(ids, position, ids, position + 1, moved);
+            System.arraycopy(names, position, names, position + 1, moved);
+            System.arraycopy(categories, position, categories, position + 1, moved);
+            System.arraycopy(prices, position, prices, position + 1, moved);
+            System.arraycopy(stocks, position, stocks, position + 1, moved);
+            for (int i = 0; i < priced; i++) {
+                if (priceOrder[i] >= position) {
+                    priceOrder[i]++;
+                }
+            }
+        }
+        ids[position] = id;
+        categories[position] = DELETED;
+        rows++;
+        if (position < rows - 1) {
+            buildPostings();
+        }
+        return position;
+    }
+
+    /**
+     * Moves the live rows down over the tombstones, keeping their order, and
+     * renumbers the price index to match.
+     */
+    private void compact() {
+        var moved = new int[rows];
+        int live = 0;
+        for (int row = 0; row < rows; row++) {
+            if (categories[row] == DELETED) {
+                continue;
+            }
+            moved[row] = live;
+            ids[live] = ids[row];
+            names[live] = names[row];
+            categories[live] = categories[row];
+            prices[live] = prices[row];
+            stocks[live] = stocks[row];
+            live++;
+        }
+        Arrays.fill(names, live, rows, null);
+        rows = live;
+        deleted = 0;
+        for (int i = 0; i < priced; i++) {
+            priceOrder[i] = moved[priceOrder[i]];
+        }
+        buildPostings();
+    }
+
+    /**
+     * Refills the posting lists from the category column.
+     */
+    private void buildPostings() {
+        for (int code = 0; code < categoryCodes.size(); code++) {
+            postings[code].clear();
+        }
+        for (int row = 0; row < rows; row++) {
+            if (categories[row] != DELETED) {
+                postings[categories[row]].add(row);
+            }
+        }
+    }
+
+    /**
+     * Fills the price index from scratch with a stable merge sort of the rows by
+     * price, so that rows with equal prices stay in row order.
+     */
+    private void buildPriceIndex() {
+        priceOrder = new int[ids.length];
+        priced = 0;
+        for (int row = 0; row < rows; row++) {
+            if (categories[row] != DELETED && !Double.isNaN(prices[row])) {
+                priceOrder[priced++] = row;
+            }
+        }
+        int[] from = priceOrder;
+        int[] to = new int[priced];
+        for (int width = 1; width < priced; width *= 2) {
+            for (int left = 0; left < priced; left += 2 * width) {
+                int middle = Math.min(left + width, priced);
+                int right = Math.min(left + 2 * width, priced);
+                int i = left;
+                int j = middle;
+                int k = left;
+                while (i < middle && j < right) {
+                    to[k++] = prices[from[j]] < prices[from[i]] ? from[j++] : from[i++];
+                }
+                while (i < middle) {
+                    to[k++] = from[i++];
+                }
+                while (j < right) {
+                    to[k++] = from[j++];
+                }
+            }
+            var sorted = to;
+            to = from;
+            from = sorted;
+        }
+        if (from != priceOrder) {
+            System.arraycopy(from, 0, priceOrder, 0, priced);
+        }
+    }
+
+    /**
+     * @return The position in the price index of the first entry at or after
+     *         (price, row); pass Integer.MIN_VALUE or MAX_VALUE as the row for
+     *         the first entry at, or after, a price
+     */
+    private int pricePosition(double price, int row) {
+        int low = 0;
+        int high = priced;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int other = priceOrder[middle];
+            double otherPrice = prices[other];
+            if (otherPrice < price || (otherPrice == price && other < row)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void indexPrice(int row) {
+        int position = pricePosition(prices[row], row);
+        System.arraycopy(priceOrder, position, priceOrder, position + 1, priced - position);
+        priceOrder[position] = row;
+        priced++;
+    }
+
+    private void unindexPrice(int row) {
+        int position = pricePosition(prices[row], row);
+        System.arraycopy(priceOrder, position + 1, priceOrder, position, priced - position - 1);
+        priced--;
+    }
+
+    private int categoryCode(String category) {
+        var code = categoryCodes.get(category);
+        if (code != null) {
+            return code;
+        }
+        int next = categoryCodes.size();
+        if (next == categoryNames.length) {
+            categoryNames = Arrays.copyOf(categoryNames, next * 2);
+            postings = Arrays.copyOf(postings, next * 2);
+        }
+        categoryNames[next] = category;
+        postings[next] = new RoaringBitmap();
+        categoryCodes.put(category, next);
+        if (category != null) {
+            codesByKey.merge(Product.normalizeCategory(category), new int[] {next}, (codes, added) -> {
+                var merged = Arrays.copyOf(codes, codes.length + 1);
+                merged[codes.length] = added[0];
+                return merged;
+            });
+        }
+        return next;
+    }
+
+    /**
+     * @return The codes of the category's spellings, or null if the store has none
+     */
+    private int[] codesOf(String category) {
+        return category == null ? null : codesByKey.get(Product.normalizeCategory(category));
+    }
+
+    /**
+     * Adds the rows of the given category codes to target.
+     *
+     * @return The target bitmap
+     */
+    private RoaringBitmap union(int[] codes, RoaringBitmap target) {
+        for (int code : codes) {
+            target.or(postings[code]);
+        }
+        return target;
+    }
+
+    private List<Product> products(RoaringBitmap rows) {
+        var products = new ArrayList<Product>(rows.getCardinality());
+        var iterator = rows.getIntIterator();
+        while (iterator.hasNext()) {
+            products.add(product(iterator.next()));
+        }
+        return products;
+    }
+
+    private List<Product> products(RoaringBitmap rows, int limit) {
+        var products = new ArrayList<Product>(Math.min(rows.getCardinality(), limit));
+        var iterator = rows.getIntIterator();
+        while (iterator.hasNext() && products.size() < limit) {
+            products.add(product(iterator.next()));
+        }
+        return products;
+    }
+
+    private Product product(int row) {
+        double price = prices[row];
+        var product = new Product(names[row], categoryNames[categories[row]],
+                Double.isNaN(price) ? null : price, stocks[row]);
+        product.setId(ids[row]);
+        return product;
+    }
+}
@@ -0,0 +1,236 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.config.ProductServerProperties;
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of ProductRepository for the read-only tools.
+ *
+ * Three Caffeine caches hold products by ID, products by category, and products
+ * under a price threshold. All are bounded by size and TTL and record hit, miss
+ * and eviction statistics. Category and price results are only cached when they
+ * have at most maxRowsPerEntry rows; larger results are remembered as "too large"
+ * so callers can go straight to the database (streaming) next time.
+ *
+ * Entries are evicted precisely when a ProductChangedEvent is committed: the
+ * product's ID, its old and new category, and every price threshold above its
+ * old or new price. Cached products are shared and must not be modified.
+ *
+ * A load can read the rows from before a commit and finish after that commit's
+ * eviction has run, which would put the old rows back for the whole TTL. So
+ * each committed change also moves the cache to a new generation, and a load
+ * only stores its result if no change was committed since it started. Storing
+ * and evicting exclude each other, so a result is either stored before the
+ * eviction, which removes it, or checked against the new generation.
+ *
+ * The statistics are published as Micrometer cache metrics (cache.gets,
+ * cache.evictions, ...) tagged with the cache name.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final ProductRepository productRepository;
+
+    private final boolean enabled;
+
+    private final int maxRowsPerEntry;
+
+    private final Cache<Long, Product> byId;
+
+    private final Cache<String, Optional<List<Product>>> byCategory;
+
+    private final Cache<Double, Optional<List<Product>>> underPrice;
+
+    /**
+     * Held shared while a load stores its result, and exclusively while a committed change is applied.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The number of committed changes applied so far. Guarded by lock for writes.
+     */
+    private volatile long generation;
+
+    public ProductCache(ProductRepository productRepository, ProductServerProperties properties) {
+        var settings = properties.getCache();
+        this.productRepository = productRepository;
+        this.enabled = settings.isEnabled();
+        this.maxRowsPerEntry = settings.getMaxRowsPerEntry();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxProducts())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        this.byCategory = rowsCache(settings);
+        this.underPrice = rowsCache(settings);
+    }
+
+    private static <K> Cache<K, Optional<List<Product>>> rowsCache(ProductServerProperties.Cache settings) {
+        return Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxRows())
+                .<K, Optional<List<Product>>>weigher((key, rows) -> 1 + rows.map(List::size).orElse(0))
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Looks up a product by ID, loading and caching it on a miss.
+     *
+     * @param id The product ID
+     * @return The product, or empty if no product has this ID
+     */
+    public Optional<Product> findById(Long id) {
+        if (!canPopulate()) {
+            return productRepository.findById(id);
+        }
+        return Optional.ofNullable(get(byId, id, key -> productRepository.findById(key).orElse(null)));
+    }
+
+    /**
+     * Returns the products in a category if the result is small enough to cache.
+     *
+     * @param category The category (case-insensitive); entries are shared by all its spellings
+     * @return The products in the category, or empty if there are more than
+     *         maxRowsPerEntry of them and the caller should stream them instead
+     */
+    public Optional<List<Product>> findByCategory(String category) {
+        return rows(byCategory, Product.normalizeCategory(category),
+                key -> productRepository.findByCategoryKey(key, Limit.of(maxRowsPerEntry + 1)));
+    }
+
+    /**
+     * Returns the products priced below a threshold if the result is small enough to cache.
+     *
+     * @param maxPrice The exclusive price threshold
+     * @return The matching products, or empty if there are more than
+     *         maxRowsPerEntry of them and the caller should query them directly
+     */
+    public Optional<List<Product>> findByPriceLessThan(double maxPrice) {
+        return rows(underPrice, maxPrice, key -> productRepository.findByPriceLessThan(key, Limit.of(maxRowsPerEntry + 1)));
+    }
+
+    private <K> Optional<List<Product>> rows(Cache<K, Optional<List<Product>>> cache, K key,
+                                             Function<K, List<Product>> loader) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Function<K, Optional<List<Product>>> load = k -> {
+            var rows = loader.apply(k);
+            return rows.size() > maxRowsPerEntry ? Optional.empty() : Optional.of(List.copyOf(rows));
+        };
+        return canPopulate() ? get(cache, key, load) : load.apply(key);
+    }
+
+    /**
+     * Returns the cached value, or loads it and caches it unless a change was
+     * committed while it loaded.
+     *
+     * @return The value, or null if the loader found none
+     */
+    private <K, V> V get(Cache<K, V> cache, K key, Function<K, V> loader) {
+        var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long started = generation;
+        var loaded = loader.apply(key);
+        if (loaded != null) {
+            lock.readLock().lock();
+            try {
+                if (generation == started) {
+                    cache.put(key, loaded);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Only cache what was read outside a read-write transaction; inside one the
+     * rows may include uncommitted changes that could still be rolled back.
+     */
+    private boolean canPopulate() {
+        return enabled && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Evicts every entry a committed product change may have made stale, before
+     * ToolResponseCache moves to a new catalog version.
+     *
+     * @param event The committed change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            byId.invalidate(event.id());
+            evictRowsContaining(event.before());
+            evictRowsContaining(event.after());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void evictRowsContaining(Product product) {
+        if (product == null) {
+            return;
+        }
+        byCategory.invalidate(Product.normalizeCategory(product.getCategory()));
+        if (product.getPrice() != null) {
+            double price = product.getPrice();
+            underPrice.asMap().keySet().removeIf(maxPrice -> price < maxPrice);
+        }
+    }
+
+    /**
+     * Drops all cached entries.
+     */
+    public void clear() {
+        byId.invalidateAll();
+        byCategory.invalidateAll();
+        underPrice.invalidateAll();
+    }
+
+    /**
+     * @return Hit, miss, load and eviction counters of each cache, keyed by cache name
+     */
+    public Map<String, CacheStats> stats() {
+        return Map.of(
+                "products.byId", byId.stats(),
+                "products.byCategory", byCategory.stats(),
+                "products.underPrice", underPrice.stats());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "products.byId");
+        CaffeineCacheMetrics.monitor(registry, byCategory, "products.byCategory");
+        CaffeineCacheMetrics.monitor(registry, underPrice, "products.underPrice");
+    }
+}
@@ -0,0 +1,46 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+
+/**
+ * Published by ProductService whenever a tool adds, updates or deletes a product.
+ *
+ * Carries detached copies of the product before and after the change, so that
+ * listeners (caches, in-memory indexes) can work out exactly which entries are
+ * affected, e.g. both the old and the new category of a product that moved.
+ * Listeners should use @TransactionalEventListener so they only react once the
+ * change has been committed.
+ *
+ * @param before The product before the change, or null if it was added
+ * @param after  The product after the change, or null if it was deleted
+ */
+public record ProductChangedEvent(Product before, Product after) {
+
+    /**
+     * @return The ID of the changed product
+     */
+    public Long id() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    static ProductChangedEvent added(Product product) {
+        return new ProductChangedEvent(null, snapshot(product));
+    }
+
+    static ProductChangedEvent updated(Product before, Product after) {
+        return new ProductChangedEvent(before, snapshot(after));
+    }
+
+    static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(snapshot(product), null);
+    }
+
+    /**
+     * Copies a product's current state, independent of later changes to the entity.
+     */
+    static Product snapshot(Product product) {
+        var copy = new Product(product.getName(), product.getCategory(), product.getPrice(), product.getStock());
+        copy.setId(product.getId());
+        return copy;
+    }
+}
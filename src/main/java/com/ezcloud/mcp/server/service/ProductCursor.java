@@ -0,0 +1,49 @@
+package com.ezcloud.mcp.server.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation tokens handed to MCP clients by
+ * the paginated listing tool.
+ *
+ * A token wraps the ID of the last product on the previous page, so the next
+ * page can be fetched with a keyset seek ("id > ?") instead of an OFFSET scan.
+ * Clients must treat the token as opaque; its format may change at any time.
+ */
+final class ProductCursor {
+
+    private static final byte VERSION = 1;
+
+    private ProductCursor() {
+    }
+
+    /**
+     * Creates a cursor pointing just after the given product ID.
+     *
+     * @param lastId The ID of the last product returned to the client
+     * @return A URL-safe token to pass back on the next call
+     */
+    static String encode(long lastId) {
+        var bytes = ByteBuffer.allocate(Byte.BYTES + Long.BYTES)
+                .put(VERSION)
+                .putLong(lastId)
+                .array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Extracts the product ID a cursor points after.
+     *
+     * @param cursor A token previously produced by {@link #encode(long)}
+     * @return The ID of the last product on the previous page
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static long decode(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor.strip());
+        if (bytes.length != Byte.BYTES + Long.BYTES || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unrecognised cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes, Byte.BYTES, Long.BYTES).getLong();
+    }
+}
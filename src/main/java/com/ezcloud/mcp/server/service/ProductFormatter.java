@@ -0,0 +1,185 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Renders product rows for the listing tools straight into a StringBuilder.
+ *
+ * Produces exactly the same text as the equivalent String.formatted calls, but
+ * without parsing a format string, creating a Formatter or boxing the ID, price
+ * and stock for every row. Prices are written by a fixed two-decimal writer that
+ * matches "%.2f": the value is rounded HALF_UP from its shortest decimal
+ * representation. The rare values it cannot decide cheaply (close to a rounding
+ * boundary, very large, NaN or infinite) and locales whose digits or decimal
+ * separator differ from "0-9" and "." are delegated to String.format, so the
+ * output is identical in every case.
+ *
+ * Response builders can be borrowed from a small per-thread pool with
+ * {@link #borrowBuilder()} and handed back by {@link #release(StringBuilder)}.
+ */
+public final class ProductFormatter {
+
+    /**
+     * Prices at or above this are delegated to String.format. Below it, price * 100
+     * is accurate to well within {@link #BOUNDARY_TOLERANCE}.
+     */
+    private static final double MAX_FAST_PRICE = 1e7;
+
+    /**
+     * Scaled prices whose fraction lies this close to .5 are delegated to String.format.
+     */
+    private static final double BOUNDARY_TOLERANCE = 1e-6;
+
+    /**
+     * Builders that grew beyond this many characters are not kept for reuse.
+     */
+    private static final int MAX_POOLED_CAPACITY = 1 << 21;
+
+    private static final ThreadLocal<StringBuilder> BUILDERS = new ThreadLocal<>();
+
+    private static volatile Locale plainDigitsLocale = Locale.ROOT;
+
+    private ProductFormatter() {
+    }
+
+    /**
+     * Appends a product in the multi-line layout used by getAllProducts and getProductsPage.
+     *
+     * Equivalent to "- %s (ID: %d)\n  Category: %s\n  Price: $%.2f\n  Stock: %d units\n".
+     *
+     * @param target  The builder to append to
+     * @param product The product to render
+     * @return The target builder
+     */
+    public static StringBuilder appendDetails(StringBuilder target, Product product) {
+        target.append("- ").append(product.getName()).append(" (ID: ");
+        appendNumber(target, product.getId()).append(")\n  Category: ").append(product.getCategory()).append("\n  Price: $");
+        appendPrice(target, product.getPrice()).append("\n  Stock: ");
+        return appendNumber(target, product.getStock()).append(" units\n");
+    }
+
+    /**
+     * Appends a product in the single-line layout used by searchByCategory.
+     *
+     * Equivalent to "- %s (ID: %d) - $%.2f - Stock: %d".
+     *
+     * @param target  The builder to append to
+     * @param product The product to render
+     * @return The target builder
+     */
+    public static StringBuilder appendCategoryRow(StringBuilder target, Product product) {
+        target.append("- ").append(product.getName()).append(" (ID: ");
+        appendNumber(target, product.getId()).append(") - $");
+        appendPrice(target, product.getPrice()).append(" - Stock: ");
+        return appendNumber(target, product.getStock());
+    }
+
+    /**
+     * Appends a product in the single-line layout used by findProductsUnderPrice.
+     *
+     * Equivalent to "- %s - $%.2f (%s) - Stock: %d".
+     *
+     * @param target  The builder to append to
+     * @param product The product to render
+     * @return The target builder
+     */
+    public static StringBuilder appendPriceRow(StringBuilder target, Product product) {
+        target.append("- ").append(product.getName()).append(" - $");
+        appendPrice(target, product.getPrice()).append(" (").append(product.getCategory()).append(") - Stock: ");
+        return appendNumber(target, product.getStock());
+    }
+
+    /**
+     * Appends a price with exactly two decimals, as "%.2f" would.
+     *
+     * @param target The builder to append to
+     * @param price  The price, or null
+     * @return The target builder
+     */
+    public static StringBuilder appendPrice(StringBuilder target, Double price) {
+        if (price == null) {
+            // "%.2f" applies the precision to the text "null"
+            return target.append("nu");
+        }
+        double value = price;
+        double magnitude = Math.abs(value);
+        if (!(magnitude < MAX_FAST_PRICE) || !hasPlainDigits()) {
+            return target.append(String.format("%.2f", value));
+        }
+
+        double scaled = magnitude * 100;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < BOUNDARY_TOLERANCE) {
+            return target.append(String.format("%.2f", value));
+        }
+
+        long cents = (long) floor + (fraction > 0.5 ? 1 : 0);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            target.append('-');
+        }
+        int fractionDigits = (int) (cents % 100);
+        return target.append(cents / 100)
+                .append('.')
+                .append((char) ('0' + fractionDigits / 10))
+                .append((char) ('0' + fractionDigits % 10));
+    }
+
+    /**
+     * Appends an ID or stock value without going through append(Object), which
+     * would allocate an intermediate String.
+     */
+    private static StringBuilder appendNumber(StringBuilder target, Number number) {
+        return number == null ? target.append("null") : target.append(number.longValue());
+    }
+
+    /**
+     * Whether the default format locale writes ASCII digits with a '.' decimal
+     * separator, as assumed by the fast price writer.
+     */
+    private static boolean hasPlainDigits() {
+        var locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (locale == plainDigitsLocale) {
+            return true;
+        }
+        var symbols = DecimalFormatSymbols.getInstance(locale);
+        if (symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.') {
+            plainDigitsLocale = locale;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes this thread's pooled builder, or a new one if none is available.
+     *
+     * @return An empty builder
+     */
+    public static StringBuilder borrowBuilder() {
+        var builder = BUILDERS.get();
+        if (builder == null) {
+            return new StringBuilder(256);
+        }
+        BUILDERS.remove();
+        return builder;
+    }
+
+    /**
+     * Returns the builder's content and keeps the builder for reuse by this thread,
+     * unless it has grown too large to keep around.
+     *
+     * @param builder A builder obtained from {@link #borrowBuilder()}
+     * @return The builder's content
+     */
+    public static String release(StringBuilder builder) {
+        var content = builder.toString();
+        if (builder.capacity() <= MAX_POOLED_CAPACITY) {
+            builder.setLength(0);
+            BUILDERS.set(builder);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,597 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of product names, serving searchProductsByName.
+ *
+ * Enabled by product-server.name-search.index=true. Names are split into
+ * words at every character that is not a letter or digit, and lower-cased, so
+ * "T-Shirt" is indexed as "t" and "shirt". A sorted map holds every distinct word
+ * with a RoaringBitmap of the products whose name contains it. As in
+ * ColumnarProductStore, products are numbered by rows in ID order, so IDs of
+ * any size work, and a table of the IDs by row maps the bitmap members back.
+ * A deleted product keeps its row until a restart.
+ *
+ * The index takes heap in proportion to the catalog: about 60 bytes per
+ * product when names share a vocabulary of some ten thousand words, and up to
+ * about 270 when every name has a word of its own, such as a model number.
+ * Like ColumnarProductStore, it is off by default.
+ *
+ * Each word of a query is looked up in three ways, best first:
+ * - exactly
+ * - as the prefix of longer words, walking the sorted map from the query word
+ * - allowing typos: words within one edit (an inserted, deleted or replaced
+ *   character, or two swapped neighbours) of a query word of up to five
+ *   characters, or two edits of a longer one, among the words with the same
+ *   first character. Query words of fewer than three characters and numbers
+ *   are only matched exactly or as a prefix.
+ * Prefix and typo lookups each stop after {@link #MAX_EXPANSIONS} matching
+ * dictionary words. The typo lookup walks the sorted words as the paths of a
+ * trie, skipping every word that starts with a prefix already too far from the
+ * query word, and compares at most {@link #MAX_TYPO_CANDIDATES} words, so its
+ * cost depends on how many words are spelled like the query word rather than
+ * on the size of the dictionary.
+ *
+ * A product matches when any query word does. It scores 3 for each query word
+ * it matches exactly, 2 for a prefix match and 1 for a typo match, and results
+ * are ranked by score, then by ID. Candidates are visited in ID order, and once
+ * enough have been found, products matching only words too weak to beat them
+ * are skipped, so a query word shared by most of the catalog costs little when
+ * another word narrows it down.
+ *
+ * Like ColumnarProductStore, the index is loaded from the database on first
+ * use, or when the application is ready, and then kept current from committed
+ * ProductChangedEvents: the words of the old name are removed and those of the
+ * new one added. Changes made to the database by other means are not seen
+ * until a restart.
+ */
+@Component
+@ConditionalOnProperty(prefix = "product-server.name-search", name = "index", havingValue = "true")
+public class ProductNameIndex {
+
+    /**
+     * The most dictionary words a query word is expanded to, for prefixes and for typos each.
+     */
+    static final int MAX_EXPANSIONS = 64;
+
+    /**
+     * The most dictionary words a query word is compared with when looking for typos.
+     */
+    static final int MAX_TYPO_CANDIDATES = 4096;
+
+    private static final int EXACT_SCORE = 3;
+
+    private static final int PREFIX_SCORE = 2;
+
+    private static final int TYPO_SCORE = 1;
+
+    /**
+     * The score of a match in each tier returned by {@link #match(String)}.
+     */
+    private static final int[] TIER_SCORES = {EXACT_SCORE, PREFIX_SCORE, TYPO_SCORE};
+
+    private static final int MIN_TYPO_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The IDs of the products whose name contains each word.
+     */
+    private final NavigableMap<String, RoaringBitmap> postings = new TreeMap<>();
+
+    /**
+     * The product ID of each row, ascending. Its first {@link #rows} entries are in use.
+     */
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int rows;
+
+    /**
+     * The name each product changed since the load is indexed under, by ID, or
+     * null once it is deleted. Two updates can read the same old name, so the
+     * words to remove are taken from here rather than from the event; products
+     * never changed are still indexed under the name the event started from.
+     */
+    private final Map<Long, String> changedNames = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    public ProductNameIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The best matches of a search.
+     *
+     * @param productIds The IDs of the best matching products, best first
+     * @param total      The number of products matching at all
+     */
+    public record Matches(List<Long> productIds, int total) {
+    }
+
+    /**
+     * The products matching one query word in each tier: exactly, as a prefix and with a typo.
+     *
+     * @param tiers     The products matched in each tier, best first
+     * @param any       The products matched in any tier
+     * @param bestScore The score of the best tier matching any product, or 0
+     */
+    private record WordMatches(RoaringBitmap[] tiers, RoaringBitmap any, int bestScore) {
+
+        WordMatches(RoaringBitmap[] tiers) {
+            this(tiers, RoaringBitmap.or(tiers), bestScore(tiers));
+        }
+
+        private static int bestScore(RoaringBitmap[] tiers) {
+            for (int tier = 0; tier < tiers.length; tier++) {
+                if (!tiers[tier].isEmpty()) {
+                    return TIER_SCORES[tier];
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Whether the index may answer a search on the current thread. Inside a
+     * read-write transaction it may not, as it only reflects committed changes.
+     *
+     * @return true outside transactions and inside read-only ones
+     */
+    public boolean canServe() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Finds the products whose names best match a query.
+     *
+     * @param query The words to look for; case and punctuation are ignored
+     * @param limit The maximum number of product IDs to return
+     * @return The best matching product IDs and the number of products matching
+     */
+    public Matches search(String query, int limit) {
+        var words = new LinkedHashSet<>(words(query));
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            var matches = new ArrayList<WordMatches>(words.size());
+            var candidates = new RoaringBitmap();
+            for (var word : words) {
+                var wordMatches = match(word);
+                matches.add(wordMatches);
+                candidates.or(wordMatches.any());
+            }
+            return new Matches(rank(candidates, matches, limit, ids), candidates.getCardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of distinct words in the index
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the index once the application has started, rather than on the first search.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Applies a committed product change to the index.
+     *
+     * Before the index is loaded the change is ignored, since the load reads it
+     * from the database. Removing the old name's words and adding the new ones
+     * is harmless when the load already saw the change. The old name is the one
+     * this index last applied for the product, which differs from the event's
+     * when a concurrent update committed first, and an update applied after the
+     * product's deletion is ignored. Runs before ToolResponseCache moves to a
+     * new catalog version.
+     *
+     * @param event The committed change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            int row = rowOf(event.id());
+            if (row < 0) {
+                if (event.after() == null) {
+                    return;
+                }
+                row = insertRow(-(row + 1), event.id());
+            }
+            var indexed = event.before() != null ? event.before().getName() : null;
+            if (changedNames.containsKey(event.id())) {
+                indexed = changedNames.get(event.id());
+                if (indexed == null && event.before() != null) {
+                    // Deleted by a change that committed after this one
+                    return;
+                }
+            }
+            if (indexed != null) {
+                remove(row, indexed);
+            }
+            var name = event.after() != null ? event.after().getName() : null;
+            if (name != null) {
+                add(row, name);
+            }
+            changedNames.put(event.id(), name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-cased words of letters and digits.
+     *
+     * @param text The text to split, may be null
+     * @return The words in order, repeats included
+     */
+    static List<String> words(String text) {
+        var words = new ArrayList<String>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                start = start < 0 ? i : start;
+            } else if (start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            words.add(text.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return words;
+    }
+
+    /**
+     * Whether two words are at most maxEdits insertions, deletions, replacements
+     * or swaps of adjacent characters apart (optimal string alignment distance).
+     * Gives up as soon as a whole row of the distance matrix exceeds maxEdits.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        var rows = firstRows(a.length() + 1, b);
+        for (int i = 1; i <= a.length(); i++) {
+            if (fillRow(rows, i, a, b) > maxEdits) {
+                return false;
+            }
+        }
+        return rows[a.length()][b.length()] <= maxEdits;
+    }
+
+    /**
+     * A distance matrix with room for the given number of rows, its first row filled in.
+     */
+    private static int[][] firstRows(int rows, String b) {
+        var matrix = new int[rows][b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            matrix[0][j] = j;
+        }
+        return matrix;
+    }
+
+    /**
+     * Fills row i of the distance matrix between the first i characters of a
+     * and all of b, from the two rows before it. No entry of a later row can
+     * be smaller than the smallest entry of this one.
+     *
+     * @return The smallest entry of the row
+     */
+    private static int fillRow(int[][] rows, int i, String a, String b) {
+        var twoBack = i > 1 ? rows[i - 2] : null;
+        var previous = rows[i - 1];
+        var current = rows[i];
+        current[0] = i;
+        int rowMinimum = i;
+        for (int j = 1; j <= b.length(); j++) {
+            int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+            int distance = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                distance = Math.min(distance, twoBack[j - 2] + 1);
+            }
+            current[j] = distance;
+            rowMinimum = Math.min(rowMinimum, distance);
+        }
+        return rowMinimum;
+    }
+
+    /**
+     * Looks a query word up exactly, as a prefix and allowing typos.
+     */
+    private WordMatches match(String word) {
+        var exact = postings.get(word);
+        var prefixed = new RoaringBitmap();
+        int expansions = 0;
+        for (var entry : postings.tailMap(word, false).entrySet()) {
+            if (!entry.getKey().startsWith(word) || expansions++ == MAX_EXPANSIONS) {
+                break;
+            }
+            prefixed.or(entry.getValue());
+        }
+        var similar = new RoaringBitmap();
+        if (word.length() >= MIN_TYPO_LENGTH && !word.chars().allMatch(Character::isDigit)) {
+            addTypoMatches(word, word.length() <= 5 ? 1 : 2, similar);
+        }
+        return new WordMatches(new RoaringBitmap[]{exact == null ? new RoaringBitmap() : exact, prefixed, similar});
+    }
+
+    /**
+     * Adds the products of the dictionary words within maxEdits of a query word
+     * that share its first character and do not start with it.
+     *
+     * The sorted words are walked as the paths of a trie, one distance matrix
+     * row per character of a candidate word, with a row per character of the
+     * query word as columns. A candidate reuses the rows of the prefix it shares
+     * with the one before it. Once every entry of a row exceeds maxEdits, no
+     * word starting with that prefix can match, and all of them are skipped by
+     * one lookup in the sorted map.
+     */
+    private void addTypoMatches(String word, int maxEdits, RoaringBitmap similar) {
+        // A candidate longer than the word by more than maxEdits fails at the row after that
+        var rows = firstRows(word.length() + maxEdits + 2, word);
+        int first = word.codePointAt(0);
+        var candidates = postings.tailMap(word.substring(0, Character.charCount(first)), true).entrySet().iterator();
+        var previous = "";
+        int filled = 0;
+        int compared = 0;
+        int expansions = 0;
+        while (candidates.hasNext() && compared++ < MAX_TYPO_CANDIDATES && expansions < MAX_EXPANSIONS) {
+            var entry = candidates.next();
+            var candidate = entry.getKey();
+            if (candidate.codePointAt(0) != first) {
+                break;
+            }
+            int depth = Math.min(filled, commonPrefixLength(previous, candidate));
+            boolean reachable = true;
+            while (reachable && depth < candidate.length()) {
+                depth++;
+                reachable = fillRow(rows, depth, candidate, word) <= maxEdits;
+            }
+            previous = candidate;
+            filled = depth;
+            if (!reachable) {
+                candidates = postings.tailMap(candidate.substring(0, depth) + Character.MAX_VALUE, false)
+                        .entrySet().iterator();
+            } else if (rows[depth][word.length()] <= maxEdits && !candidate.startsWith(word)) {
+                // Prefix matches already score higher
+                similar.or(entry.getValue());
+                expansions++;
+            }
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Picks the best scoring candidates, ties going to the lowest ID.
+     *
+     * Each tier's products are walked by an iterator that only moves forward,
+     * in step with the candidates, as when merging sorted posting lists. A
+     * bounded heap keeps the worst of the products so far at its head. Since
+     * candidates arrive in ascending ID order, a later one only replaces it with
+     * a strictly higher score. Whenever that worst score rises, the query words
+     * that together cannot score more than it are dropped from the candidates
+     * (MaxScore pruning): only products matching another word are visited from
+     * then on, and none once no product could beat the heap.
+     */
+    private static List<Long> rank(RoaringBitmap candidates, List<WordMatches> matches, int limit, long[] ids) {
+        var tiers = new PeekableIntIterator[matches.size()][];
+        for (int word = 0; word < tiers.length; word++) {
+            var products = matches.get(word).tiers();
+            tiers[word] = new PeekableIntIterator[products.length];
+            for (int tier = 0; tier < products.length; tier++) {
+                tiers[word][tier] = products[tier].getIntIterator();
+            }
+        }
+        var byBestScore = matches.stream().sorted(Comparator.comparingInt(WordMatches::bestScore)).toList();
+        var kept = new PriorityQueue<Long>();
+        int threshold = -1;
+        var iterator = candidates.getIntIterator();
+        while (iterator.hasNext()) {
+            int row = iterator.next();
+            int score = 0;
+            for (var word : tiers) {
+                for (int tier = 0; tier < word.length; tier++) {
+                    word[tier].advanceIfNeeded(row);
+                    if (word[tier].hasNext() && word[tier].peekNext() == row) {
+                        score += TIER_SCORES[tier];
+                        break;
+                    }
+                }
+            }
+            if (kept.size() < limit) {
+                kept.add(rankKey(score, row));
+            } else if (score > scoreOf(kept.peek())) {
+                kept.poll();
+                kept.add(rankKey(score, row));
+            }
+            if (kept.size() == limit && scoreOf(kept.peek()) > threshold) {
+                threshold = scoreOf(kept.peek());
+                var essential = essential(byBestScore, threshold);
+                if (essential == null || row == Integer.MAX_VALUE) {
+                    break;
+                }
+                iterator = essential.getIntIterator();
+                iterator.advanceIfNeeded(row + 1);
+            }
+        }
+        var ranked = new Long[kept.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = ids[Integer.MAX_VALUE - (int) kept.poll().longValue()];
+        }
+        return Arrays.asList(ranked);
+    }
+
+    /**
+     * The products that could still score more than the threshold: those
+     * matching a word outside the weakest words whose best scores add up to at
+     * most the threshold.
+     *
+     * @param byBestScore The matches of each query word, weakest first
+     * @return The products to visit, or null if no product can score more
+     */
+    private static RoaringBitmap essential(List<WordMatches> byBestScore, int threshold) {
+        int weak = 0;
+        int weakScore = 0;
+        while (weak < byBestScore.size() && weakScore + byBestScore.get(weak).bestScore() <= threshold) {
+            weakScore += byBestScore.get(weak++).bestScore();
+        }
+        if (weak == byBestScore.size()) {
+            return null;
+        }
+        var products = new RoaringBitmap();
+        for (var matches : byBestScore.subList(weak, byBestScore.size())) {
+            products.or(matches.any());
+        }
+        return products;
+    }
+
+    /**
+     * Orders products worst first: by ascending score, then descending row, which is descending ID.
+     */
+    private static long rankKey(int score, int row) {
+        return (long) score << 32 | (Integer.MAX_VALUE - row);
+    }
+
+    private static int scoreOf(long rankKey) {
+        return (int) (rankKey >>> 32);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (var names = productRepository.streamNames()) {
+                    // In ID order, so every product takes the next row
+                    names.forEach(product -> add(insertRow(rows, product.id()), product.name()));
+                }
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The row holding this ID, or (-(insertion point) - 1) if there is none
+     */
+    private int rowOf(long id) {
+        return Arrays.binarySearch(ids, 0, rows, id);
+    }
+
+    /**
+     * Opens a row for a new ID at its sorted position. IDs come from a sequence,
+     * so this nearly always appends; otherwise the later rows of every word's
+     * bitmap are shifted up.
+     */
+    private int insertRow(int position, long id) {
+        if (rows == ids.length) {
+            ids = Arrays.copyOf(ids, rows + (rows >> 1));
+        }
+        if (position < rows) {
+            System.arraycopy(ids, position, ids, position + 1, rows - position);
+            for (var products : postings.values()) {
+                var later = RoaringBitmap.and(products, RoaringBitmap.bitmapOfRange(position, rows));
+                if (!later.isEmpty()) {
+                    products.remove(position, (long) rows);
+                    products.or(RoaringBitmap.addOffset(later, 1));
+                }
+            }
+        }
+        ids[position] = id;
+        rows++;
+        return position;
+    }
+
+    private void add(int row, String name) {
+        for (var word : words(name)) {
+            postings.computeIfAbsent(word, key -> new RoaringBitmap()).add(row);
+        }
+    }
+
+    private void remove(int row, String name) {
+        for (var word : words(name)) {
+            var products = postings.get(word);
+            if (products != null) {
+                products.remove(row);
+                if (products.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,29 @@
 package com.ezcloud.mcp.server.service;
 
+import com.ezcloud.mcp.server.config.ProductServerProperties;
 import com.ezcloud.mcp.server.entity.Product;
 import com.ezcloud.mcp.server.repository.ProductRepository;
+import com.ezcloud.mcp.server.tool.ToolCallContext;
+import jakarta.persistence.EntityManager;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -16,19 +35,78 @@ import java.util.stream.Collectors;
  *
  * Available tools:
  * - getAllProducts: List all products in the inventory
+ * - getProductsPage: List products one bounded page at a time
+ * - getProductById: Look up a single product
  * - searchByCategory: Find products by category name
+ * - searchByCategories: Find products in any of several categories
+ * - searchByCategoryPrefix: Find products whose category starts with a prefix
+ * - countProductsByCategory: Count the products in each category
  * - findProductsUnderPrice: Find products below a price threshold
+ * - findProductsInPriceRange: Find the cheapest or dearest products in a price range
+ * - searchProductsByName: Find products by words of their name, best matches first
  * - addProduct: Create a new product
+ * - addProducts: Create many products in one call
+ * - upsertProducts: Create or update many products, matched by name
  * - updateProduct: Modify an existing product
  * - deleteProduct: Remove a product from inventory
+ *
+ * The listing tools return their rendered text from ToolResponseCache while the
+ * catalog is unchanged, and otherwise read through ProductCache where possible.
+ * With product-server.store.type=columnar, the read tools other than
+ * getAllProducts and getProductsPage use the in-memory ColumnarProductStore
+ * instead. With product-server.name-search.index=true, searchProductsByName
+ * uses the in-memory ProductNameIndex.
+ * Every write runs in a transaction and publishes a ProductChangedEvent, which
+ * caches and the in-memory store and index apply once the transaction has
+ * committed, so a concurrent read cannot put the old rows back after them.
  */
 @Service
 public class ProductService {
 
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final EntityManager entityManager;
+
+    private final ProductCache productCache;
+
+    private final ToolResponseCache responseCache;
+
+    /**
+     * The in-memory store serving reads, or null when reading from the database.
+     */
+    private final ColumnarProductStore columnarStore;
+
+    /**
+     * The index of name words, or null when names are searched in the database.
+     */
+    private final ProductNameIndex nameIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ProductServerProperties.Paging paging;
+
+    private final ProductServerProperties.Bulk bulk;
+
+    public ProductService(ProductRepository productRepository, EntityManager entityManager,
+                          ProductCache productCache, ToolResponseCache responseCache,
+                          ObjectProvider<ColumnarProductStore> columnarStore, ObjectProvider<ProductNameIndex> nameIndex,
+                          ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                          ProductServerProperties properties) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.productCache = productCache;
+        this.responseCache = responseCache;
+        this.columnarStore = columnarStore.getIfAvailable();
+        this.nameIndex = nameIndex.getIfAvailable();
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.paging = properties.getPaging();
+        this.bulk = properties.getBulk();
     }
 
     /**
@@ -37,49 +115,301 @@ public class ProductService {
      * This tool is useful when the AI needs to display the complete inventory
      * or when the user asks to see all available products.
      *
+     * Products are streamed from the database and encoded row by row, so only the
+     * response text itself grows with the size of the inventory. The stream runs
+     * in a read-only transaction that is only opened on a response cache miss.
+     *
      * @return A formatted string listing all products with their details
      */
     @Tool(description = "Retrieves all products from the inventory database. " +
             "Returns a formatted list of all products with their details " +
             "including ID, name, category, price, and stock quantity.")
     public String getAllProducts() {
-        var products = productRepository.findAll();
-        var format = """
-                - %s (ID: %d)
-                  Category: %s
-                  Price: $%.2f
-                  Stock: %d units
-                """;
-        return products.stream()
-                .map(p -> format.formatted(p.getName(), p.getId(), p.getCategory(), p.getPrice(), p.getStock()))
-                .collect(Collectors.joining("%n".formatted(), "Found %d products:%n%n".formatted(products.size()), ""));
+        return responseCache.get("getAllProducts", () -> readOnlyTransaction.execute(status -> {
+            var rows = ProductFormatter.borrowBuilder();
+            try (var products = productRepository.streamAll()) {
+                int count = appendRows(products.peek(entityManager::detach).iterator(), rows, ProductFormatter::appendDetails);
+                return ProductFormatter.release(rows.insert(0, "Found %d products:%n%n".formatted(count)));
+            }
+        }));
+    }
+
+    /**
+     * MCP Tool: Retrieves one page of products using keyset pagination.
+     *
+     * Unlike getAllProducts, the amount of data loaded and returned per call is
+     * bounded by the page size, so memory use and latency stay constant no matter
+     * how large the catalog grows. Products are ordered by ID; the response ends
+     * with an opaque cursor the client passes back to fetch the following page.
+     *
+     * @param cursor   The continuation cursor from the previous page, or null for the first page
+     * @param pageSize The number of products to return, or null for the configured default
+     * @return A formatted page of products followed by the next cursor, or an error message
+     */
+    @Tool(description = "Retrieves one page of products from the inventory, ordered by ID. " +
+            "Omit the cursor to get the first page; to continue, pass the 'Next cursor' value " +
+            "from the previous response. Prefer this over getAllProducts for large inventories.")
+    public String getProductsPage(
+            @ToolParam(description = "Continuation cursor from a previous response; omit for the first page",
+                    required = false) String cursor,
+            @ToolParam(description = "Maximum number of products to return; omit for the server default",
+                    required = false) Integer pageSize) {
+        return responseCache.get("getProductsPage", () -> renderProductsPage(cursor, pageSize), cursor, pageSize);
+    }
+
+    private String renderProductsPage(String cursor, Integer pageSize) {
+        int size = pageSize == null ? paging.getDefaultPageSize() : pageSize;
+        if (size < 1) {
+            return "Error: Page size must be at least 1.";
+        }
+        size = Math.min(size, paging.getMaxPageSize());
+
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0L : ProductCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return "Error: Invalid cursor '%s'. Omit the cursor to start from the first page.".formatted(cursor);
+        }
+
+        var slice = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(size));
+        var products = slice.getContent();
+
+        if (products.isEmpty()) {
+            return "No more products.";
+        }
+
+        var footer = slice.hasNext()
+                ? "%nNext cursor: %s".formatted(ProductCursor.encode(products.get(products.size() - 1).getId()))
+                : "%nEnd of inventory.".formatted();
+        var response = ProductFormatter.borrowBuilder()
+                .append("Showing %d products:%n%n".formatted(products.size()));
+        appendRows(products.iterator(), response, ProductFormatter::appendDetails);
+        return ProductFormatter.release(response.append(footer));
+    }
+
+    /**
+     * MCP Tool: Retrieves a single product by its ID.
+     *
+     * Served from the columnar store when enabled, otherwise from the product
+     * cache after the first lookup.
+     *
+     * @param id The ID of the product
+     * @return The product's details, or an error if not found
+     */
+    @Tool(description = "Retrieves a single product by its ID. " +
+            "Returns the product's name, category, price, and stock quantity, or an error if not found.")
+    public String getProductById(Long id) {
+        var found = useColumnarStore() ? columnarStore.findById(id) : productCache.findById(id);
+        return found
+                .map(product -> {
+                    ToolCallContext.addRowsScanned(1);
+                    return """
+                            Product found:
+                            ID: %d
+                            Name: %s
+                            Category: %s
+                            Price: $%.2f
+                            Stock: %d units""".formatted(
+                            product.getId(), product.getName(), product.getCategory(),
+                            product.getPrice(), product.getStock());
+                })
+                .orElse("Error: Product with ID %d not found.".formatted(id));
     }
 
     /**
      * MCP Tool: Searches for products by category.
      *
-     * Enables filtering products by their category. The search is case-sensitive,
-     * so "Electronics" and "electronics" are treated as different categories.
+     * Enables filtering products by their category. The search ignores case, so
+     * "Electronics" and "electronics" find the same products with one lookup of
+     * the lower-cased category key. Small categories are served from the product
+     * cache; larger ones are streamed and encoded row by row, like getAllProducts.
      *
-     * @param category The category name to search for (case-sensitive)
+     * @param category The category name to search for (case-insensitive)
      * @return A formatted string listing matching products or a "not found" message
      */
     @Tool(description = "Searches for products by category name. " +
-            "Returns all products that match the specified category (case-sensitive). " +
+            "Returns all products that match the specified category (case-insensitive). " +
             "Common categories include: Electronics, Books, Clothing, Appliances.")
     public String searchByCategory(String category) {
-        var products = productRepository.findByCategory(category);
+        return responseCache.get("searchByCategory", () -> renderCategory(category), category);
+    }
 
-        if (products.isEmpty()) {
+    private String renderCategory(String category) {
+        var rows = ProductFormatter.borrowBuilder();
+        int count;
+        var cached = useColumnarStore()
+                ? Optional.of(columnarStore.findByCategory(category))
+                : productCache.findByCategory(category);
+        if (cached.isPresent()) {
+            count = appendRows(cached.get().iterator(), rows, ProductFormatter::appendCategoryRow);
+        } else {
+            count = readOnlyTransaction.execute(status -> {
+                try (var products = productRepository.streamByCategoryKey(Product.normalizeCategory(category))) {
+                    return appendRows(products.peek(entityManager::detach).iterator(), rows,
+                            ProductFormatter::appendCategoryRow);
+                }
+            });
+        }
+
+        if (count == 0) {
+            ProductFormatter.release(rows);
             return "No products found in category '%s'.".formatted(category);
         }
 
-        return products.stream()
-                .map(p -> "- %s (ID: %d) - $%.2f - Stock: %d".formatted(
-                        p.getName(), p.getId(), p.getPrice(), p.getStock()))
-                .collect(Collectors.joining("%n".formatted(),
-                        "Found %d products in category '%s':%n%n".formatted(products.size(), category),
-                        "%n".formatted()));
+        return ProductFormatter.release(rows.insert(0, "Found %d products in category '%s':%n%n".formatted(count, category))
+                .append(LINE_SEPARATOR));
+    }
+
+    /**
+     * MCP Tool: Searches for products in any of several categories.
+     *
+     * The columnar store answers with the union of the categories' posting lists;
+     * otherwise a single "category_key IN (...)" query is used. At most limit
+     * products are returned, with a note when more match.
+     *
+     * @param categories The category names to search for (case-insensitive)
+     * @param limit      The maximum number of products to return, or null for the configured default
+     * @return A formatted string listing matching products, in ID order, or a "not found" message
+     */
+    @Tool(description = "Searches for products in any of several categories (case-insensitive). " +
+            "Returns the products whose category is one of those given, with their category, " +
+            "in ID order and at most 'limit' of them.")
+    public String searchByCategories(
+            @ToolParam(description = "The category names to search for") List<String> categories,
+            @ToolParam(description = "Maximum number of products to return; omit for the server default",
+                    required = false) Integer limit) {
+        if (categories == null || categories.isEmpty()) {
+            return "Error: No categories given.";
+        }
+        return responseCache.get("searchByCategories", () -> renderCategories(categories, limit), categories, limit);
+    }
+
+    private String renderCategories(List<String> categories, Integer limit) {
+        int size = limit == null ? paging.getDefaultPageSize() : limit;
+        if (size < 1) {
+            return "Error: Limit must be at least 1.";
+        }
+        size = Math.min(size, paging.getMaxPageSize());
+
+        // One more than the limit tells whether further products match
+        var products = useColumnarStore()
+                ? columnarStore.findByCategoryIn(categories, size + 1)
+                : productRepository.findByCategoryKeyInOrderByIdAsc(categories.stream()
+                        .filter(Objects::nonNull)
+                        .map(Product::normalizeCategory)
+                        .toList(), Limit.of(size + 1));
+        var names = categories.stream().map("'%s'"::formatted).collect(Collectors.joining(", "));
+
+        if (products.isEmpty()) {
+            return "No products found in categories %s.".formatted(names);
+        }
+        return renderLimited(products, size, "Found %d products in categories %s:%n%n", names);
+    }
+
+    /**
+     * MCP Tool: Searches for products whose category starts with a prefix.
+     *
+     * Lets an assistant find a category it only partly knows ("elec", "book")
+     * without guessing spellings. The prefix is matched case-insensitively
+     * against the lower-cased category key, as one range of the category index
+     * or of the columnar store's sorted category map. At most limit products
+     * are returned, with a note when more match.
+     *
+     * @param prefix The start of the category name (case-insensitive)
+     * @param limit  The maximum number of products to return, or null for the configured default
+     * @return A formatted string listing matching products, in ID order, or a "not found" message
+     */
+    @Tool(description = "Searches for products whose category name starts with the given text " +
+            "(case-insensitive), e.g. 'elec' finds Electronics. " +
+            "Returns the matching products with their category, in ID order and at most 'limit' of them.")
+    public String searchByCategoryPrefix(
+            @ToolParam(description = "The start of the category name") String prefix,
+            @ToolParam(description = "Maximum number of products to return; omit for the server default",
+                    required = false) Integer limit) {
+        if (prefix == null || prefix.isEmpty()) {
+            return "Error: Category prefix cannot be empty.";
+        }
+        return responseCache.get("searchByCategoryPrefix", () -> renderCategoryPrefix(prefix, limit), prefix, limit);
+    }
+
+    private String renderCategoryPrefix(String prefix, Integer limit) {
+        int size = limit == null ? paging.getDefaultPageSize() : limit;
+        if (size < 1) {
+            return "Error: Limit must be at least 1.";
+        }
+        size = Math.min(size, paging.getMaxPageSize());
+
+        // One more than the limit tells whether further products match
+        var products = useColumnarStore()
+                ? columnarStore.findByCategoryPrefix(prefix, size + 1)
+                : productRepository.findByCategoryKeyStartingWithOrderByIdAsc(Product.normalizeCategory(prefix),
+                        Limit.of(size + 1));
+
+        if (products.isEmpty()) {
+            return "No products found in categories starting with '%s'.".formatted(prefix);
+        }
+        return renderLimited(products, size, "Found %d products in categories starting with '%s':%n%n", prefix);
+    }
+
+    /**
+     * Lists at most size of the products found by a category search, with a
+     * note when the search returned more than that.
+     *
+     * @param products    The products found, up to one more than size
+     * @param size        The number of products to list
+     * @param header      The header format, taking the number of products listed and the search terms
+     * @param description The search terms, as they appear in the header
+     * @return The formatted response
+     */
+    private String renderLimited(List<Product> products, int size, String header, String description) {
+        boolean more = products.size() > size;
+        if (more) {
+            products = products.subList(0, size);
+        }
+
+        var response = ProductFormatter.borrowBuilder()
+                .append(header.formatted(products.size(), description));
+        appendRows(products.iterator(), response, ProductFormatter::appendPriceRow);
+        response.append(LINE_SEPARATOR);
+        if (more) {
+            response.append(LINE_SEPARATOR)
+                    .append("More products match; narrow the search or raise the limit to see them.");
+        }
+        return ProductFormatter.release(response);
+    }
+
+    /**
+     * MCP Tool: Counts the products in each category.
+     *
+     * The columnar store reads the counts off its posting lists; otherwise a
+     * GROUP BY query over the category index is used.
+     *
+     * @return One line per category with its product count, ordered by category name
+     */
+    @Tool(description = "Lists every product category with the number of products in it. " +
+            "Use this to discover which categories exist before searching by category.")
+    public String countProductsByCategory() {
+        return responseCache.get("countProductsByCategory", this::renderCategoryCounts);
+    }
+
+    private String renderCategoryCounts() {
+        var counts = useColumnarStore()
+                ? columnarStore.countByCategory()
+                : productRepository.countProductsPerCategory();
+
+        if (counts.isEmpty()) {
+            return "No products in the inventory.";
+        }
+
+        var response = new StringBuilder("Found %d categories:%n".formatted(counts.size()));
+        long products = 0;
+        for (var count : counts) {
+            response.append(LINE_SEPARATOR).append("- ").append(count.category()).append(": ")
+                    .append(count.products()).append(count.products() == 1 ? " product" : " products");
+            products += count.products();
+        }
+        ToolCallContext.addRowsScanned(products);
+        return response.toString();
     }
 
     /**
@@ -95,18 +425,213 @@ public class ProductService {
             "Useful for finding budget-friendly options or products within a price range. " +
             "Price should be specified as a decimal number (e.g., 50.00).")
     public String findProductsUnderPrice(double maxPrice) {
-        var products = productRepository.findByPriceLessThan(maxPrice);
+        return responseCache.get("findProductsUnderPrice", () -> renderUnderPrice(maxPrice), maxPrice);
+    }
+
+    private String renderUnderPrice(double maxPrice) {
+        var products = useColumnarStore()
+                ? columnarStore.findByPriceLessThan(maxPrice)
+                : productCache.findByPriceLessThan(maxPrice)
+                        .orElseGet(() -> productRepository.findByPriceLessThan(maxPrice));
 
         if (products.isEmpty()) {
             return "No products found under $%.2f.".formatted(maxPrice);
         }
 
-        return products.stream()
-                .map(p -> "- %s - $%.2f (%s) - Stock: %d".formatted(
-                        p.getName(), p.getPrice(), p.getCategory(), p.getStock()))
-                .collect(Collectors.joining("%n".formatted(),
-                        "Found %d products under $%.2f:%n%n".formatted(products.size(), maxPrice),
-                        "%n".formatted()));
+        var response = ProductFormatter.borrowBuilder()
+                .append("Found %d products under $%.2f:%n%n".formatted(products.size(), maxPrice));
+        appendRows(products.iterator(), response, ProductFormatter::appendPriceRow);
+        return ProductFormatter.release(response.append(LINE_SEPARATOR));
+    }
+
+    /**
+     * MCP Tool: Finds the cheapest (or most expensive) products in a price range.
+     *
+     * Unlike findProductsUnderPrice, the response is bounded: at most limit
+     * products are returned, in price order, with a note when more match. The
+     * columnar store answers from its price index; otherwise the query walks the
+     * price (or category and price) index in the database and stops at the limit.
+     *
+     * @param minPrice The inclusive lower bound, or null for no lower bound
+     * @param maxPrice The inclusive upper bound, or null for no upper bound
+     * @param category The category to restrict to (case-insensitive), or null for all
+     * @param sort     "asc" for cheapest first (the default) or "desc" for most expensive first
+     * @param limit    The maximum number of products to return, or null for the configured default
+     * @return A formatted list of the matching products, or an error message
+     */
+    @Tool(description = "Finds products priced within a range, cheapest first or most expensive first. " +
+            "Both bounds are inclusive and optional, the results can be restricted to one category " +
+            "(case-insensitive), and at most 'limit' products are returned. " +
+            "Use this for questions like 'the 5 cheapest books between $20 and $50'.")
+    public String findProductsInPriceRange(
+            @ToolParam(description = "Minimum price, inclusive; omit for no minimum", required = false)
+            Double minPrice,
+            @ToolParam(description = "Maximum price, inclusive; omit for no maximum", required = false)
+            Double maxPrice,
+            @ToolParam(description = "Only return products in this category; omit for all categories",
+                    required = false) String category,
+            @ToolParam(description = "'asc' for cheapest first (default) or 'desc' for most expensive first",
+                    required = false) String sort,
+            @ToolParam(description = "Maximum number of products to return; omit for the server default",
+                    required = false) Integer limit) {
+        return responseCache.get("findProductsInPriceRange",
+                () -> renderPriceRange(minPrice, maxPrice, category, sort, limit),
+                minPrice, maxPrice, category, sort, limit);
+    }
+
+    private String renderPriceRange(Double minPrice, Double maxPrice, String category, String sort, Integer limit) {
+        double min = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double max = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        if (Double.isNaN(min) || Double.isNaN(max) || min > max) {
+            return "Error: The minimum price must not be greater than the maximum price.";
+        }
+        boolean descending;
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (sort.equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            return "Error: Invalid sort '%s'. Use 'asc' or 'desc'.".formatted(sort);
+        }
+        int size = limit == null ? paging.getDefaultPageSize() : limit;
+        if (size < 1) {
+            return "Error: Limit must be at least 1.";
+        }
+        size = Math.min(size, paging.getMaxPageSize());
+        var wanted = category == null || category.isBlank() ? null : category;
+
+        // One more than the limit tells whether further products match
+        List<Product> products;
+        if (useColumnarStore()) {
+            products = columnarStore.findByPriceBetween(min, max, wanted, descending, size + 1);
+        } else {
+            var page = PageRequest.of(0, size + 1,
+                    Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "price", "id"));
+            double low = Math.max(min, -Double.MAX_VALUE);
+            double high = Math.min(max, Double.MAX_VALUE);
+            products = wanted == null
+                    ? productRepository.findByPriceBetween(low, high, page)
+                    : productRepository.findByCategoryKeyAndPriceBetween(Product.normalizeCategory(wanted), low, high,
+                            page);
+        }
+
+        var range = describePriceRange(min, max) + (wanted == null ? "" : " in category '%s'".formatted(wanted));
+        if (products.isEmpty()) {
+            return "No products found %s.".formatted(range);
+        }
+        boolean more = products.size() > size;
+        if (more) {
+            products = products.subList(0, size);
+        }
+
+        var response = ProductFormatter.borrowBuilder()
+                .append("Found %d products %s, %s first:%n%n".formatted(products.size(), range,
+                        descending ? "most expensive" : "cheapest"));
+        appendRows(products.iterator(), response, ProductFormatter::appendPriceRow);
+        response.append(LINE_SEPARATOR);
+        if (more) {
+            response.append(LINE_SEPARATOR)
+                    .append("More products match; narrow the range or raise the limit to see them.");
+        }
+        return ProductFormatter.release(response);
+    }
+
+    private static String describePriceRange(double min, double max) {
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            return "at any price";
+        }
+        if (min == Double.NEGATIVE_INFINITY) {
+            return "up to $%.2f".formatted(max);
+        }
+        if (max == Double.POSITIVE_INFINITY) {
+            return "from $%.2f".formatted(min);
+        }
+        return "from $%.2f to $%.2f".formatted(min, max);
+    }
+
+    /**
+     * MCP Tool: Searches for products by the words in their names.
+     *
+     * With the name index, each query word matches product names containing it
+     * as a word, as the start of a word, or with a typo, and products matching
+     * more words, and more closely, are listed first (see ProductNameIndex).
+     * The matching products are then read by ID, from the columnar store when
+     * enabled. Without the index, products whose name contains every query word
+     * are listed in ID order.
+     *
+     * @param query The words to search for (case-insensitive)
+     * @param limit The maximum number of products to return, or null for the configured default
+     * @return A formatted string listing the best matching products, or an error message
+     */
+    @Tool(description = "Searches for products by name. Finds products whose name contains every query word, " +
+            "ignoring case, e.g. 'mech key' finds 'Mechanical Keyboard'. If the server has its name index " +
+            "enabled, also matches words with small typos and returns the best matches first. " +
+            "Returns each product's ID, category, price and stock.")
+    public String searchProductsByName(
+            @ToolParam(description = "Words of the product name to search for") String query,
+            @ToolParam(description = "Maximum number of products to return; omit for the server default",
+                    required = false) Integer limit) {
+        return responseCache.get("searchProductsByName", () -> renderNameSearch(query, limit), query, limit);
+    }
+
+    private String renderNameSearch(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return "Error: Search query cannot be empty.";
+        }
+        int size = limit == null ? paging.getDefaultPageSize() : limit;
+        if (size < 1) {
+            return "Error: Limit must be at least 1.";
+        }
+        size = Math.min(size, paging.getMaxPageSize());
+
+        // One more than the limit tells whether further products match
+        List<Product> products;
+        int total;
+        if (nameIndex != null && nameIndex.canServe()) {
+            var matches = nameIndex.search(query, size + 1);
+            products = findAllInOrder(matches.productIds());
+            total = matches.total();
+        } else {
+            products = productRepository.findByNameContainingAllIgnoreCase(List.of(query.strip().split("\\s+")),
+                    Limit.of(size + 1));
+            total = -1;
+        }
+        if (products.isEmpty()) {
+            return "No products found matching '%s'.".formatted(query);
+        }
+        boolean more = products.size() > size;
+        if (more) {
+            products = products.subList(0, size);
+        }
+
+        var response = ProductFormatter.borrowBuilder().append(total < 0
+                ? "Found %d products matching '%s':%n%n".formatted(products.size(), query)
+                : "Found %d products matching '%s', showing the best %d:%n%n".formatted(total, query,
+                        products.size()));
+        appendRows(products.iterator(), response, ProductFormatter::appendDetails);
+        if (more) {
+            response.append(LINE_SEPARATOR)
+                    .append("More products match; add words to the query or raise the limit to see them.");
+        }
+        return ProductFormatter.release(response);
+    }
+
+    /**
+     * Reads products by ID, keeping the order of the IDs and skipping IDs that no longer exist.
+     */
+    private List<Product> findAllInOrder(List<Long> ids) {
+        if (useColumnarStore()) {
+            return ids.stream()
+                    .map(columnarStore::findById)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+        var byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -124,22 +649,16 @@ public class ProductService {
     @Tool(description = "Adds a new product to the inventory database. " +
             "Requires: name (product name), category (product category), price (decimal price), " +
             "and stock (integer quantity). Returns confirmation with the created product details.")
+    @Transactional
     public String addProduct(String name, String category, double price, int stock) {
-        if (name == null || name.isBlank()) {
-            return "Error: Product name cannot be empty.";
-        }
-        if (category == null || category.isBlank()) {
-            return "Error: Product category cannot be empty.";
-        }
-        if (price < 0) {
-            return "Error: Product price cannot be negative.";
-        }
-        if (stock < 0) {
-            return "Error: Product stock cannot be negative.";
+        var error = validate(name, category, price, stock);
+        if (error != null) {
+            return "Error: " + error;
         }
 
         var product = new Product(name, category, price, stock);
         var saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.added(saved));
 
         return """
                 Product added successfully!
@@ -152,6 +671,45 @@ public class ProductService {
                 saved.getCategory(), saved.getPrice(), saved.getStock());
     }
 
+    /**
+     * MCP Tool: Adds many products to the inventory in one call.
+     *
+     * Every row is validated before anything is written; if any row is invalid,
+     * nothing is saved and the invalid rows are reported. Valid requests are saved
+     * in a single transaction, flushed in chunks as JDBC batches.
+     *
+     * @param products The products to add
+     * @return A one-line-per-row summary of the created products, or the validation errors
+     */
+    @Tool(description = "Adds many products to the inventory database in one call. " +
+            "Each product requires name, category, price (decimal) and stock (integer). " +
+            "All rows are validated first: if any row is invalid, nothing is saved. " +
+            "Returns one result line per row with the created product ID.")
+    @Transactional
+    public String addProducts(@ToolParam(description = "The products to add") List<ProductSpec> products) {
+        return saveAll(products, false);
+    }
+
+    /**
+     * MCP Tool: Adds or updates many products in one call, matching by name.
+     *
+     * Rows whose name matches an existing product (case-sensitive) update that
+     * product; other rows create new products. If several existing products share
+     * a name, the one with the lowest ID is updated. Validation and persistence
+     * work as in addProducts.
+     *
+     * @param products The products to add or update
+     * @return A one-line-per-row summary of the created or updated products, or the validation errors
+     */
+    @Tool(description = "Adds or updates many products in one call, matching existing products by exact name. " +
+            "Rows with a known name update that product's category, price and stock; other rows are added. " +
+            "All rows are validated first: if any row is invalid, nothing is saved. " +
+            "Returns one result line per row saying whether it was added or updated, with the product ID.")
+    @Transactional
+    public String upsertProducts(@ToolParam(description = "The products to add or update") List<ProductSpec> products) {
+        return saveAll(products, true);
+    }
+
     /**
      * MCP Tool: Updates an existing product.
      *
@@ -168,6 +726,7 @@ public class ProductService {
     @Tool(description = "Updates an existing product's information in the inventory. " +
             "Requires the product ID and new values for name, category, price, and stock. " +
             "All fields are required even if only updating one field.")
+    @Transactional
     public String updateProduct(Long id, String name, String category, double price, int stock) {
         var format = """
                 Product updated successfully!
@@ -178,12 +737,14 @@ public class ProductService {
                 Stock: %d units""";
         return productRepository.findById(id)
                 .map(product -> {
+                    var before = ProductChangedEvent.snapshot(product);
                     product.setName(name);
                     product.setCategory(category);
                     product.setPrice(price);
                     product.setStock(stock);
 
                     var updated = productRepository.save(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(before, updated));
 
                     return format.formatted(
                             updated.getId(), updated.getName(), updated.getCategory(),
@@ -202,14 +763,174 @@ public class ProductService {
      */
     @Tool(description = "Deletes a product from the inventory by its ID. " +
             "Returns confirmation of deletion or error if product not found.")
+    @Transactional
     public String deleteProduct(Long id) {
         return productRepository.findById(id)
                 .map(product -> {
                     productRepository.delete(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
                     return "Product '%s' (ID: %d) deleted successfully.".formatted(
                             product.getName(), product.getId());
                 })
                 .orElse("Error: Product with ID %d not found.".formatted(id));
     }
 
+    /**
+     * Reads go to the columnar store when it is enabled, except inside a read-write
+     * transaction, which must see its own uncommitted writes in the database.
+     */
+    private boolean useColumnarStore() {
+        return columnarStore != null && columnarStore.canServe();
+    }
+
+    /**
+     * Encodes products into the response one row at a time.
+     *
+     * Callers pass streamed entities through entityManager::detach first, so that
+     * neither a List of products nor an ever-growing persistence context is held
+     * alongside the response text. Rows are separated by the platform line
+     * separator, i.e. "%n".
+     *
+     * @param products The products to encode
+     * @param target   The builder receiving the encoded rows
+     * @param encoder  Appends a single product row, see ProductFormatter
+     * @return The number of rows written
+     */
+    private int appendRows(Iterator<Product> products, StringBuilder target,
+                           BiConsumer<StringBuilder, Product> encoder) {
+        int count = 0;
+        while (products.hasNext()) {
+            if (count++ > 0) {
+                target.append(LINE_SEPARATOR);
+            }
+            encoder.accept(target, products.next());
+        }
+        ToolCallContext.addRowsScanned(count);
+        return count;
+    }
+
+    /**
+     * Checks a product's fields before it is saved.
+     *
+     * @return A description of the first problem found, or null if the product is valid
+     */
+    private static String validate(String name, String category, Double price, Integer stock) {
+        if (name == null || name.isBlank()) {
+            return "Product name cannot be empty.";
+        }
+        if (category == null || category.isBlank()) {
+            return "Product category cannot be empty.";
+        }
+        if (price == null) {
+            return "Product price is required.";
+        }
+        if (price < 0) {
+            return "Product price cannot be negative.";
+        }
+        if (stock == null) {
+            return "Product stock is required.";
+        }
+        if (stock < 0) {
+            return "Product stock cannot be negative.";
+        }
+        return null;
+    }
+
+    /**
+     * Validates and persists the rows of a bulk tool call.
+     *
+     * Rows are written chunk by chunk: each chunk is saved, flushed as JDBC
+     * batches and then cleared from the persistence context, so memory use is
+     * bounded by the chunk size. When upserting, each chunk's existing products
+     * are resolved with a single name lookup.
+     *
+     * @param specs  The requested products
+     * @param upsert Whether rows matching an existing product name update it
+     * @return The per-row result summary, or the validation errors
+     */
+    private String saveAll(List<ProductSpec> specs, boolean upsert) {
+        if (specs == null || specs.isEmpty()) {
+            return "Error: No products given.";
+        }
+        if (specs.size() > bulk.getMaxProducts()) {
+            return "Error: At most %d products can be saved per call, got %d.".formatted(
+                    bulk.getMaxProducts(), specs.size());
+        }
+
+        var errors = new StringBuilder();
+        int invalid = 0;
+        for (int i = 0; i < specs.size(); i++) {
+            var spec = specs.get(i);
+            var error = spec == null
+                    ? "Product details are missing."
+                    : validate(spec.name(), spec.category(), spec.price(), spec.stock());
+            if (error != null) {
+                errors.append(LINE_SEPARATOR).append("Row ").append(i + 1).append(": ").append(error);
+                invalid++;
+            }
+        }
+        if (invalid > 0) {
+            return "Error: %d of %d products are invalid; nothing was saved.".formatted(invalid, specs.size())
+                    + errors;
+        }
+
+        var results = new StringBuilder();
+        int added = 0;
+        int updated = 0;
+        for (int start = 0; start < specs.size(); start += bulk.getChunkSize()) {
+            var chunk = specs.subList(start, Math.min(start + bulk.getChunkSize(), specs.size()));
+            var existing = new HashMap<String, Product>();
+            if (upsert) {
+                productRepository.findByNameIn(chunk.stream().map(ProductSpec::name).toList()).stream()
+                        .sorted(Comparator.comparing(Product::getId))
+                        .forEach(p -> existing.putIfAbsent(p.getName(), p));
+            }
+
+            var products = new Product[chunk.size()];
+            var wasUpdated = new boolean[chunk.size()];
+            var befores = new Product[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                var spec = chunk.get(i);
+                var product = upsert ? existing.get(spec.name()) : null;
+                if (product == null) {
+                    product = new Product(spec.name(), spec.category(), spec.price(), spec.stock());
+                    productRepository.save(product);
+                    if (upsert) {
+                        existing.put(spec.name(), product);
+                    }
+                } else {
+                    befores[i] = ProductChangedEvent.snapshot(product);
+                    product.setCategory(spec.category());
+                    product.setPrice(spec.price());
+                    product.setStock(spec.stock());
+                    wasUpdated[i] = true;
+                }
+                products[i] = product;
+            }
+            entityManager.flush();
+            for (int i = 0; i < chunk.size(); i++) {
+                eventPublisher.publishEvent(wasUpdated[i]
+                        ? ProductChangedEvent.updated(befores[i], products[i])
+                        : ProductChangedEvent.added(products[i]));
+            }
+            entityManager.clear();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                results.append(LINE_SEPARATOR).append("Row ").append(start + i + 1)
+                        .append(wasUpdated[i] ? ": updated (ID: " : ": added (ID: ")
+                        .append(products[i].getId()).append(')');
+                if (wasUpdated[i]) {
+                    updated++;
+                } else {
+                    added++;
+                }
+            }
+        }
+
+        return (upsert
+                ? "Saved %d products: %d added, %d updated.".formatted(specs.size(), added, updated)
+                : "Added %d products.".formatted(added))
+                + results;
+    }
+
 }
@@ -0,0 +1,21 @@
+package com.ezcloud.mcp.server.service;
+
+import org.springframework.ai.tool.annotation.ToolParam;
+
+/**
+ * The details of one product in a bulk tool call (addProducts, upsertProducts).
+ *
+ * Fields are boxed so that a missing value in the client's JSON is reported
+ * as a validation error for that row instead of silently defaulting to zero.
+ *
+ * @param name     The product name
+ * @param category The product category
+ * @param price    The product price in USD
+ * @param stock    The stock quantity
+ */
+public record ProductSpec(
+        @ToolParam(description = "Product name") String name,
+        @ToolParam(description = "Product category") String category,
+        @ToolParam(description = "Price in USD as a decimal number") Double price,
+        @ToolParam(description = "Stock quantity") Integer stock) {
+}
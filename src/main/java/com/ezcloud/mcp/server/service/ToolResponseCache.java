@@ -0,0 +1,124 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.config.ProductServerProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the finished response text of read-only tools.
+ *
+ * Entries are keyed by tool name, arguments and the catalog version, a counter
+ * bumped whenever a ProductChangedEvent is committed. A repeated call against an
+ * unchanged catalog returns the cached String without touching the database or
+ * the formatter; after any write the old entries are simply never looked up again
+ * and age out of the cache. The cache is bounded by the total number of characters
+ * held, and responses longer than maxEntryChars are never cached. Its statistics
+ * are published as Micrometer cache metrics under the name "tool.responses".
+ */
+@Component
+public class ToolResponseCache implements MeterBinder {
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    private final boolean enabled;
+
+    private final int maxEntryChars;
+
+    private final Cache<Key, String> responses;
+
+    public ToolResponseCache(ProductServerProperties properties) {
+        var settings = properties.getResponseCache();
+        this.enabled = settings.isEnabled();
+        this.maxEntryChars = settings.getMaxEntryChars();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaxChars())
+                .<Key, String>weigher((key, response) -> response.length())
+                .expireAfterWrite(properties.getCache().getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached response for a tool call, rendering and caching it on a miss.
+     *
+     * @param tool     The tool name
+     * @param response Renders the response from the database
+     * @param args     The tool arguments, in declaration order (may contain nulls)
+     * @return The response text
+     */
+    public String get(String tool, Supplier<String> response, Object... args) {
+        if (!canPopulate()) {
+            return response.get();
+        }
+        // Read the version before rendering: a write committing meanwhile bumps it,
+        // so a response that missed the write can only ever be served at the old version.
+        var key = new Key(tool, Arrays.asList(args), catalogVersion.get());
+        var cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        var rendered = response.get();
+        if (rendered.length() <= maxEntryChars) {
+            responses.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Responses rendered inside a read-write transaction may include uncommitted
+     * changes, so they are neither cached nor served from the cache.
+     */
+    private boolean canPopulate() {
+        return enabled && (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Moves to a new catalog version once a product change has been committed.
+     * Runs after the listeners that hold product rows, so a response rendered
+     * under the new version never reads rows they have not updated yet.
+     *
+     * @param event The committed change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * @return The current catalog version
+     */
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * @return Hit, miss and eviction counters of the response cache
+     */
+    public CacheStats stats() {
+        return responses.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "tool.responses");
+    }
+
+    private record Key(String tool, List<?> args, long version) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.ezcloud.mcp.server.tool;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs blocking tool calls for the ASYNC MCP server on a dedicated, bounded pool.
+ *
+ * The async server dispatches every incoming request concurrently, but ProductService
+ * tools block on JDBC. This executor moves each call off the transport threads and
+ * applies two limits:
+ * - at most maxInFlight calls are admitted (running or waiting); calls beyond that
+ *   are answered straight away with an error result rather than piling up in memory
+ * - at most maxConcurrent calls execute at the same time
+ * A call the client cancels while it runs still counts against both limits until
+ * its worker thread returns, since the blocking work cannot be interrupted.
+ *
+ * Calls run either on a fixed pool of platform threads ({@link #platformThreads}) or
+ * on one virtual thread per call ({@link #virtualThreads}). With virtual threads a
+ * waiting call costs a few kilobytes rather than a thread stack, so the in-flight
+ * limit can be set far higher than any platform pool.
+ */
+public class BoundedToolExecutor implements AutoCloseable {
+
+    private final Executor executor;
+
+    private final Scheduler scheduler;
+
+    private final Semaphore admitted;
+
+    private final Semaphore running;
+
+    private final int maxInFlight;
+
+    private BoundedToolExecutor(Executor executor, int maxConcurrent, int maxInFlight) {
+        this.executor = executor;
+        this.scheduler = Schedulers.fromExecutor(executor);
+        this.admitted = new Semaphore(maxInFlight);
+        this.running = new Semaphore(maxConcurrent);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Creates an executor backed by a fixed pool of platform threads.
+     *
+     * @param threads     The number of worker threads, which also bounds concurrent calls
+     * @param maxInFlight The maximum number of calls running or waiting for a worker
+     * @return A new executor; close it to stop the worker threads
+     */
+    public static BoundedToolExecutor platformThreads(int threads, int maxInFlight) {
+        var pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("product-tool-"));
+        return new BoundedToolExecutor(pool, threads, maxInFlight);
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for every call.
+     *
+     * Virtual threads are only available on Java 21 and later.
+     *
+     * @param maxConcurrent The number of calls allowed to run at once, typically the JDBC pool size
+     * @param maxInFlight   The maximum number of calls running or waiting
+     * @return A new executor
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+     */
+    public static BoundedToolExecutor virtualThreads(int maxConcurrent, int maxInFlight) {
+        return new BoundedToolExecutor(new VirtualThreadTaskExecutor("product-tool-"), maxConcurrent, maxInFlight);
+    }
+
+    /**
+     * Wraps tool callbacks as async MCP tool specifications executed on this pool.
+     *
+     * @param toolCallbacks The (blocking) tool callbacks to expose
+     * @return One async tool specification per callback
+     */
+    public List<McpServerFeatures.AsyncToolSpecification> toAsyncToolSpecifications(ToolCallback... toolCallbacks) {
+        return Arrays.stream(toolCallbacks)
+                .map(this::toAsyncToolSpecification)
+                .toList();
+    }
+
+    private McpServerFeatures.AsyncToolSpecification toAsyncToolSpecification(ToolCallback toolCallback) {
+        // Reuse Spring AI's sync adapter for argument/result mapping; only the scheduling differs.
+        var sync = McpToolUtils.toSyncToolSpecification(toolCallback);
+        return new McpServerFeatures.AsyncToolSpecification(sync.tool(),
+                (exchange, arguments) -> submit(() -> sync.call().apply(new McpSyncServerExchange(exchange), arguments)));
+    }
+
+    /**
+     * Schedules a blocking tool call, or rejects it if the in-flight limit is reached.
+     *
+     * @param call The blocking tool call
+     * @return The tool result, emitted once the call has run on a worker thread
+     */
+    Mono<McpSchema.CallToolResult> submit(ToolCall call) {
+        return Mono.defer(() -> {
+            if (!admitted.tryAcquire()) {
+                return Mono.just(new McpSchema.CallToolResult(
+                        "Error: Server busy, %d tool calls already in progress. Retry shortly.".formatted(maxInFlight),
+                        true));
+            }
+            // The permit is released by whichever comes first: the call finishing on its
+            // worker, or the subscription ending before the call started. A cancelled
+            // call that is already running keeps its permit until it returns.
+            var claimed = new AtomicBoolean();
+            return Mono.fromCallable(() -> {
+                        if (!claimed.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            return runBounded(call);
+                        } finally {
+                            admitted.release();
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> {
+                        if (claimed.compareAndSet(false, true)) {
+                            admitted.release();
+                        }
+                    });
+        });
+    }
+
+    private McpSchema.CallToolResult runBounded(ToolCall call) throws InterruptedException {
+        running.acquire();
+        try {
+            return call.run();
+        } finally {
+            running.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * A blocking tool invocation producing an MCP result.
+     */
+    @FunctionalInterface
+    interface ToolCall {
+
+        McpSchema.CallToolResult run();
+    }
+}
@@ -0,0 +1,179 @@
+package com.ezcloud.mcp.server.tool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a tool callback with Micrometer metrics and a per-call log line.
+ *
+ * For every call of a tool it records, tagged with the tool name:
+ * - mcp.tool.calls: a timer of the call duration, tagged outcome=success|error
+ * - mcp.tool.errors: a counter of failed calls, tagged kind=exception for thrown
+ *   exceptions and kind=error_result for "Error: ..." responses
+ * - mcp.tool.response.size: the distribution of response sizes in characters
+ * - mcp.tool.rows.scanned: the distribution of products read, as reported by the
+ *   tool through ToolCallContext
+ *
+ * Timers and summaries publish percentile histograms, so tail latency can be
+ * aggregated in Prometheus, plus client-side p50/p95/p99 for JMX readers.
+ *
+ * When INFO logging is enabled for this class (the file-logging profile), each
+ * call gets a random correlation ID that is put in the MDC as "callId", next to
+ * "tool", for everything logged while the call runs, and one structured line is
+ * logged per call with its outcome, duration, response size and rows scanned.
+ * With logging disabled none of this is done, so the cost is a level check.
+ */
+public class InstrumentedToolCallback implements ToolCallback {
+
+    /**
+     * Tool results are JSON-encoded strings, so error messages start with a quote.
+     */
+    private static final String ERROR_RESULT_PREFIX = "\"Error:";
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentedToolCallback.class);
+
+    private final ToolCallback delegate;
+
+    private final String tool;
+
+    private final Timer succeeded;
+
+    private final Timer failed;
+
+    private final Counter exceptions;
+
+    private final Counter errorResults;
+
+    private final DistributionSummary responseSize;
+
+    private final DistributionSummary rowsScanned;
+
+    private InstrumentedToolCallback(ToolCallback delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.tool = delegate.getToolDefinition().name();
+        this.succeeded = timer(registry, tool, "success");
+        this.failed = timer(registry, tool, "error");
+        this.exceptions = errors(registry, tool, "exception");
+        this.errorResults = errors(registry, tool, "error_result");
+        this.responseSize = DistributionSummary.builder("mcp.tool.response.size")
+                .description("Size of MCP tool responses")
+                .baseUnit("characters")
+                .tag("tool", tool)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rowsScanned = DistributionSummary.builder("mcp.tool.rows.scanned")
+                .description("Products read to answer an MCP tool call")
+                .baseUnit("rows")
+                .tag("tool", tool)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Wraps each callback so that its calls are measured.
+     *
+     * @param registry      The registry receiving the tool metrics
+     * @param toolCallbacks The callbacks to instrument
+     * @return The instrumented callbacks, in the same order
+     */
+    public static List<ToolCallback> instrument(MeterRegistry registry, ToolCallback... toolCallbacks) {
+        return Arrays.stream(toolCallbacks)
+                .<ToolCallback>map(callback -> new InstrumentedToolCallback(callback, registry))
+                .toList();
+    }
+
+    private static Timer timer(MeterRegistry registry, String tool, String outcome) {
+        return Timer.builder("mcp.tool.calls")
+                .description("Duration of MCP tool calls")
+                .tags("tool", tool, "outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    private static Counter errors(MeterRegistry registry, String tool, String kind) {
+        return Counter.builder("mcp.tool.errors")
+                .description("Failed MCP tool calls")
+                .tags("tool", tool, "kind", kind)
+                .register(registry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        var context = ToolCallContext.open();
+        boolean logging = log.isInfoEnabled();
+        if (logging) {
+            MDC.put("callId", Long.toHexString(ThreadLocalRandom.current().nextLong()));
+            MDC.put("tool", tool);
+        }
+        long start = System.nanoTime();
+        try {
+            var result = delegate.call(toolInput, toolContext);
+            long elapsed = System.nanoTime() - start;
+            boolean errorResult = result != null && result.startsWith(ERROR_RESULT_PREFIX);
+            if (errorResult) {
+                failed.record(elapsed, TimeUnit.NANOSECONDS);
+                errorResults.increment();
+            } else {
+                succeeded.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            int size = result == null ? 0 : result.length();
+            responseSize.record(size);
+            rowsScanned.record(context.rowsScanned());
+            if (logging) {
+                log.atInfo()
+                        .addKeyValue("outcome", errorResult ? "error_result" : "success")
+                        .addKeyValue("durationMicros", TimeUnit.NANOSECONDS.toMicros(elapsed))
+                        .addKeyValue("responseChars", size)
+                        .addKeyValue("rowsScanned", context.rowsScanned())
+                        .log("Tool call completed");
+            }
+            return result;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            failed.record(elapsed, TimeUnit.NANOSECONDS);
+            exceptions.increment();
+            log.atWarn()
+                    .setCause(e)
+                    .addKeyValue("outcome", "exception")
+                    .addKeyValue("durationMicros", TimeUnit.NANOSECONDS.toMicros(elapsed))
+                    .log("Tool call failed");
+            throw e;
+        } finally {
+            if (logging) {
+                MDC.remove("callId");
+                MDC.remove("tool");
+            }
+            context.close();
+        }
+    }
+}
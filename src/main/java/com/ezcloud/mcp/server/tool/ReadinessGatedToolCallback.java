@@ -0,0 +1,101 @@
+package com.ezcloud.mcp.server.tool;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.util.json.JsonParser;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Holds tool calls back until the data they read has been loaded.
+ *
+ * The tool definitions are available as soon as the server starts, so clients can
+ * list the tools straight away; a call made before the ready future completes
+ * blocks until it does. If it takes longer than the timeout, or loading failed,
+ * the call is answered with an error result instead of reaching the tool.
+ * Once a call has got through, the check costs a volatile read.
+ */
+public class ReadinessGatedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+
+    private final Future<?> ready;
+
+    private final Duration timeout;
+
+    private volatile boolean open;
+
+    private ReadinessGatedToolCallback(ToolCallback delegate, Future<?> ready, Duration timeout) {
+        this.delegate = delegate;
+        this.ready = ready;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Wraps each callback so that its calls wait for the ready future.
+     *
+     * @param ready         Completes once the tools can be called
+     * @param timeout       How long a call waits before giving up with an error result
+     * @param toolCallbacks The callbacks to gate
+     * @return The gated callbacks, in the same order
+     */
+    public static List<ToolCallback> gate(Future<?> ready, Duration timeout, ToolCallback... toolCallbacks) {
+        return Arrays.stream(toolCallbacks)
+                .<ToolCallback>map(callback -> new ReadinessGatedToolCallback(callback, ready, timeout))
+                .toList();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        if (!open) {
+            var error = awaitReady();
+            if (error != null) {
+                // Encoded like the results of the method tools, which are JSON strings
+                return JsonParser.toJson(error);
+            }
+            open = true;
+        }
+        return delegate.call(toolInput, toolContext);
+    }
+
+    /**
+     * @return null once ready, otherwise the error message to answer the call with
+     */
+    private String awaitReady() {
+        try {
+            ready.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return null;
+        } catch (TimeoutException e) {
+            return "Error: The product catalog is still loading after %d seconds. Retry shortly."
+                    .formatted(timeout.toSeconds());
+        } catch (ExecutionException e) {
+            return "Error: The product catalog could not be loaded.";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Error: Interrupted while waiting for the product catalog to load.";
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ezcloud.mcp.server.tool;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STDIO transport that writes messages one at a time and drains in-flight calls
+ * when its input ends.
+ *
+ * The SDK's StdioServerTransportProvider has two problems for this server:
+ * - it queues outgoing messages with Sinks.Many#tryEmitNext, which fails when two
+ *   threads emit at once, so with several tool calls in flight some responses were
+ *   dropped ("Failed to enqueue message") and the client waited for them forever
+ * - on end of input it stops writing at once, so the responses of calls still
+ *   running are lost, and its non-daemon threads keep the process alive
+ *
+ * This provider reads one JSON-RPC message per line on a daemon thread and writes
+ * each outgoing message, followed by a newline and a flush, under a lock. When the
+ * client closes stdin it stops reading, waits up to drainTimeout for the calls
+ * already received to send their responses, and then releases
+ * {@link #awaitEndOfInput()}, so the application can close its context, and with
+ * it the connection pool, and exit.
+ *
+ * The wait is bounded: calls still running when drainTimeout passes are
+ * abandoned, and their number is logged. Their clients get no response, and a
+ * write among them may fail and roll back as the pool closes under it rather
+ * than commit.
+ */
+public class SerializedStdioTransportProvider implements McpServerTransportProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(SerializedStdioTransportProvider.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final InputStream input;
+
+    private final OutputStream output;
+
+    private final Duration drainTimeout;
+
+    private final CountDownLatch endOfInput = new CountDownLatch(1);
+
+    /**
+     * Messages received whose handling, including sending the response, is not finished.
+     * Guarded by this.
+     */
+    private int inFlight;
+
+    private volatile McpServerSession session;
+
+    /**
+     * Creates a transport on the process's stdin and stdout.
+     *
+     * @param drainTimeout How long in-flight calls may take to finish once stdin is closed
+     */
+    public SerializedStdioTransportProvider(Duration drainTimeout) {
+        this(System.in, System.out, drainTimeout);
+    }
+
+    /**
+     * Creates a transport on the given streams.
+     *
+     * @param input        The stream of incoming messages, one per line
+     * @param output       The stream outgoing messages are written to
+     * @param drainTimeout How long in-flight calls may take to finish once input ends
+     */
+    public SerializedStdioTransportProvider(InputStream input, OutputStream output, Duration drainTimeout) {
+        this.input = input;
+        this.output = output;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        session = sessionFactory.create(new StdioTransport());
+        var reader = new Thread(this::readMessages, "stdio-read");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        var current = session;
+        return current == null ? Mono.empty() : current.sendNotification(method, params);
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        var current = session;
+        return current == null ? Mono.empty() : current.closeGracefully();
+    }
+
+    /**
+     * Blocks until stdin has been closed and the calls in flight at that point have
+     * finished, or the drain timeout has passed, in which case the calls still
+     * running are logged as abandoned.
+     */
+    public void awaitEndOfInput() throws InterruptedException {
+        endOfInput.await();
+    }
+
+    private void readMessages() {
+        try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                McpSchema.JSONRPCMessage message;
+                try {
+                    message = McpSchema.deserializeJsonRpcMessage(objectMapper, line);
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Ignoring a line that is not a JSON-RPC message", e);
+                    continue;
+                }
+                dispatch(message);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read stdin; treating it as closed", e);
+        } finally {
+            drain();
+            endOfInput.countDown();
+        }
+    }
+
+    private void dispatch(McpSchema.JSONRPCMessage message) {
+        synchronized (this) {
+            inFlight++;
+        }
+        session.handle(message)
+                .doFinally(signal -> finished())
+                .subscribe(null, error -> log.warn("Failed to handle a message", error));
+    }
+
+    private synchronized void finished() {
+        inFlight--;
+        if (inFlight == 0) {
+            notifyAll();
+        }
+    }
+
+    private synchronized void drain() {
+        long start = System.nanoTime();
+        long deadline = start + drainTimeout.toNanos();
+        try {
+            while (inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (inFlight > 0) {
+            log.warn("Input closed; {} messages still in flight after {} ms are abandoned", inFlight, elapsedMillis);
+        } else {
+            log.info("Input closed; in-flight messages drained in {} ms", elapsedMillis);
+        }
+    }
+
+    private void write(McpSchema.JSONRPCMessage message) {
+        try {
+            // Newlines inside JSON strings are already escaped, so one message is one line
+            var line = objectMapper.writeValueAsBytes(message);
+            synchronized (output) {
+                output.write(line);
+                output.write('\n');
+                output.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to stdout", e);
+        }
+    }
+
+    private final class StdioTransport implements McpServerTransport {
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            return Mono.fromRunnable(() -> write(message));
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return objectMapper.convertValue(data, typeRef);
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return Mono.empty();
+        }
+    }
+}
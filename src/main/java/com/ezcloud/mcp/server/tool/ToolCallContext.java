@@ -0,0 +1,44 @@
+package com.ezcloud.mcp.server.tool;
+
+/**
+ * Per-call state of the MCP tool call running on the current thread.
+ *
+ * InstrumentedToolCallback opens a context around every tool invocation; tool
+ * implementations report what they did through the static methods, which are
+ * no-ops when called outside a tool call (e.g. from tests or benchmarks).
+ */
+public final class ToolCallContext {
+
+    private static final ThreadLocal<ToolCallContext> CURRENT = new ThreadLocal<>();
+
+    private long rowsScanned;
+
+    private ToolCallContext() {
+    }
+
+    /**
+     * Records products read to answer the current tool call.
+     *
+     * @param rows The number of products read
+     */
+    public static void addRowsScanned(long rows) {
+        var context = CURRENT.get();
+        if (context != null) {
+            context.rowsScanned += rows;
+        }
+    }
+
+    static ToolCallContext open() {
+        var context = new ToolCallContext();
+        CURRENT.set(context);
+        return context;
+    }
+
+    void close() {
+        CURRENT.remove();
+    }
+
+    long rowsScanned() {
+        return rowsScanned;
+    }
+}
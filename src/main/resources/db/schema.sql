@@ -0,0 +1,30 @@
+-- Product catalog schema for the file-backed store (persistent profile).
+--
+-- Runs on every start and only creates what is missing, so an existing store
+-- keeps its rows and indexes. Must stay in line with the Product entity:
+-- Hibernate validates the tables against it (ddl-auto: validate).
+
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS products (
+    id           BIGINT NOT NULL,
+    name         VARCHAR(255),
+    category     VARCHAR(255),
+    category_key VARCHAR(255),
+    price        FLOAT(53),
+    stock        INTEGER,
+    PRIMARY KEY (id)
+);
+
+-- Stores created before category searches ignored case: add and fill the
+-- lower-cased key, and swap the category indexes for ones on the key
+ALTER TABLE products ADD COLUMN IF NOT EXISTS category_key VARCHAR(255);
+DROP INDEX IF EXISTS idx_products_category;
+DROP INDEX IF EXISTS idx_products_category_price;
+
+CREATE INDEX IF NOT EXISTS idx_products_category_key ON products (category_key);
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price);
+CREATE INDEX IF NOT EXISTS idx_products_category_key_price ON products (category_key, price);
+CREATE INDEX IF NOT EXISTS idx_products_name ON products (name);
+
+UPDATE products SET category_key = LOWER(category) WHERE category_key IS NULL AND category IS NOT NULL;
@@ -0,0 +1,46 @@
+package com.ezcloud.mcp.server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the "http" profile, which serves MCP over SSE
+ * instead of STDIO.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("http")
+class HttpTransportTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	/**
+	 * Verifies that a client connecting to the SSE endpoint is told where to post its messages.
+	 */
+	@Test
+	void sseEndpointAnnouncesMessageEndpoint() {
+		var event = webTestClient.get().uri("/sse")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+				})
+				.getResponseBody()
+				.blockFirst(Duration.ofSeconds(10));
+
+		assertThat(event).isNotNull();
+		assertThat(event.event()).isEqualTo("endpoint");
+		assertThat(event.data()).startsWith("/mcp/message?sessionId=");
+	}
+
+}
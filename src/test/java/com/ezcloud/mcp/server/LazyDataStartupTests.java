@@ -0,0 +1,37 @@
+package com.ezcloud.mcp.server;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the "lazy-data" profile, which brings the database up
+ * in the background and on first use.
+ */
+@SpringBootTest(properties = "spring.ai.mcp.server.stdio=false")
+@ActiveProfiles("lazy-data")
+class LazyDataStartupTests {
+
+	@Autowired
+	private ToolCallbackProvider productTools;
+
+	/**
+	 * Verifies that the tools are registered and that a data tool sees the sample data.
+	 */
+	@Test
+	void toolsServeTheSeededCatalog() {
+		var searchByCategory = Arrays.stream(productTools.getToolCallbacks())
+				.filter(tool -> tool.getToolDefinition().name().equals("searchByCategory"))
+				.findFirst()
+				.orElseThrow();
+
+		assertThat(searchByCategory.call("{\"category\":\"Electronics\"}")).contains("Laptop", "Wireless Mouse");
+	}
+
+}
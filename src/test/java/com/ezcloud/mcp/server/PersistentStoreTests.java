@@ -0,0 +1,83 @@
+package com.ezcloud.mcp.server;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the "persistent" profile, which keeps the catalog in an H2 file.
+ */
+class PersistentStoreTests {
+
+	@TempDir
+	private Path storeDirectory;
+
+	/**
+	 * Verifies that a restarted server validates the existing schema, keeps the
+	 * products saved before the restart and does not load the sample data again.
+	 */
+	@Test
+	void restartKeepsCatalogWithoutReseeding() {
+		try (var context = start()) {
+			var repository = context.getBean(ProductRepository.class);
+			assertThat(repository.count()).isEqualTo(10);
+			repository.save(new Product("Persistent Widget", "Durable", 5.0, 1));
+		}
+
+		try (var context = start()) {
+			var repository = context.getBean(ProductRepository.class);
+			assertThat(repository.count()).isEqualTo(11);
+			assertThat(repository.findByCategoryKey("durable")).extracting(Product::getName)
+					.containsExactly("Persistent Widget");
+		}
+	}
+
+	/**
+	 * Verifies that a store created before category keys existed gains the
+	 * column, filled from the category, and answers case-insensitive searches.
+	 */
+	@Test
+	void startupAddsCategoryKeyToOlderStore() throws SQLException {
+		try (var connection = DriverManager.getConnection(url(), "sa", "");
+			 var statement = connection.createStatement()) {
+			statement.execute("CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50");
+			statement.execute("CREATE TABLE products (id BIGINT NOT NULL, name VARCHAR(255), "
+					+ "category VARCHAR(255), price FLOAT(53), stock INTEGER, PRIMARY KEY (id))");
+			statement.execute("CREATE INDEX idx_products_category ON products (category)");
+			statement.execute("INSERT INTO products VALUES (NEXT VALUE FOR products_seq, 'Old Widget', 'Legacy', 3.0, 2)");
+		}
+
+		try (var context = start()) {
+			var repository = context.getBean(ProductRepository.class);
+			assertThat(repository.count()).isEqualTo(1);
+			assertThat(repository.findByCategoryKey("legacy")).extracting(Product::getName)
+					.containsExactly("Old Widget");
+		}
+	}
+
+	private String url() {
+		return "jdbc:h2:file:" + storeDirectory.resolve("productdb") + ";DB_CLOSE_ON_EXIT=FALSE";
+	}
+
+	private ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(McpServerApplication.class)
+				.web(WebApplicationType.NONE)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				.profiles("persistent")
+				// An argument, since it must override the URL in application-persistent.yml
+				.run("--spring.datasource.url=" + url());
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.McpServerApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared setup for the JMH benchmarks.
+ *
+ * Benchmarks run the real application context against a private in-memory H2
+ * database, with the MCP transport disabled so nothing reads stdin or writes
+ * to stdout while JMH is reporting.
+ */
+final class BenchmarkSupport {
+
+    /**
+     * Number of distinct categories in the seeded catalog. Each category holds
+     * rows / CATEGORIES products.
+     */
+    static final int CATEGORIES = 1000;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Starts the application against a fresh, uniquely named in-memory database.
+     *
+     * @param properties Extra "key=value" properties for the benchmark at hand
+     * @return The running application context; close it in the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext startContext(String... properties) {
+        var settings = new ArrayList<>(List.of(
+                "spring.ai.mcp.server.enabled=false",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()));
+        settings.addAll(List.of(properties));
+        // Passed as command-line arguments: default properties would lose to application.yml
+        var args = settings.stream().map(setting -> "--" + setting).toArray(String[]::new);
+        return new SpringApplicationBuilder(McpServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Replaces the sample data with a synthetic catalog of the given size.
+     *
+     * Rows are generated inside H2 with a single INSERT ... SELECT, which loads a
+     * million products in seconds. Product i belongs to "Category-(i mod 1000)" and
+     * prices are spread uniformly between $0.00 and $999.99. IDs are drawn from
+     * products_seq so that products later saved through Hibernate never collide
+     * with seeded ones.
+     *
+     * @param context The running application context
+     * @param rows    The number of products to create
+     */
+    static void seedProducts(ConfigurableApplicationContext context, int rows) {
+        var jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM products");
+        jdbc.update("""
+                INSERT INTO products (id, name, category, category_key, price, stock)
+                SELECT NEXT VALUE FOR products_seq, 'Product ' || X, 'Category-' || MOD(X, ?),
+                       'category-' || MOD(X, ?), MOD(X * 7919, 100000) / 100.0, MOD(X, 500)
+                FROM SYSTEM_RANGE(1, ?)
+                """, CATEGORIES, CATEGORIES, rows);
+        jdbc.execute("ANALYZE TABLE products");
+    }
+}
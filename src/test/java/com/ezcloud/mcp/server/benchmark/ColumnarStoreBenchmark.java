@@ -0,0 +1,132 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.CategoryCount;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import com.ezcloud.mcp.server.service.ColumnarProductStore;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares category and price queries over the columnar store with the same
+ * queries through the indexed JPA repository: one category (a posting list in
+ * the store), three categories at once, the product count of every category,
+ * products under a price (a column scan in the store), and the 20 cheapest
+ * products in a price range (the store's price index).
+ *
+ * A store is built over the seeded table and loaded before measuring, so only
+ * the queries are timed. The scans match 0.1% of the catalog, as in
+ * ProductIndexBenchmark; the range holds half of it.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="ColumnarStoreBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarStoreBenchmark {
+
+    private static final List<String> THREE_CATEGORIES = List.of("Category-7", "Category-42", "Category-999");
+
+    private static final List<String> THREE_CATEGORY_KEYS = List.of("category-7", "category-42", "category-999");
+
+    private static final PageRequest CHEAPEST_20 = PageRequest.of(0, 20, Sort.by("price", "id"));
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository repository;
+
+    private ColumnarProductStore store;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        BenchmarkSupport.seedProducts(context, rows);
+        repository = context.getBean(ProductRepository.class);
+        // Built here rather than enabled by property, so that it loads the seeded rows
+        store = new ColumnarProductStore(repository, context.getBean(EntityManager.class),
+                context.getBean(PlatformTransactionManager.class));
+        if (store.size() != rows) {
+            throw new IllegalStateException("Store holds %d products, expected %d".formatted(store.size(), rows));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> repositoryByCategory() {
+        return repository.findByCategoryKey("category-7");
+    }
+
+    @Benchmark
+    public List<Product> columnarByCategory() {
+        return store.findByCategory("Category-7");
+    }
+
+    @Benchmark
+    public List<Product> repositoryByCategories() {
+        return repository.findByCategoryKeyInOrderByIdAsc(THREE_CATEGORY_KEYS, Limit.unlimited());
+    }
+
+    @Benchmark
+    public List<Product> columnarByCategories() {
+        return store.findByCategoryIn(THREE_CATEGORIES, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<CategoryCount> repositoryCategoryCounts() {
+        return repository.countProductsPerCategory();
+    }
+
+    @Benchmark
+    public List<CategoryCount> columnarCategoryCounts() {
+        return store.countByCategory();
+    }
+
+    @Benchmark
+    public List<Product> repositoryByPrice() {
+        return repository.findByPriceLessThan(1.0);
+    }
+
+    @Benchmark
+    public List<Product> columnarByPrice() {
+        return store.findByPriceLessThan(1.0);
+    }
+
+    @Benchmark
+    public List<Product> repositoryPriceRange() {
+        return repository.findByPriceBetween(250.0, 750.0, CHEAPEST_20);
+    }
+
+    @Benchmark
+    public List<Product> columnarPriceRange() {
+        return store.findByPriceBetween(250.0, 750.0, null, false, 20);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import com.ezcloud.mcp.server.service.ProductNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares name searches through the product name index with the substring
+ * query searchProductsByName falls back to without it.
+ *
+ * Seeded products are named "Product N", so the index holds one word shared by
+ * every product and one number word per product. Each search asks for 21
+ * products, as the tool does for its default limit of 20:
+ * - substring: "LIKE '%4242%'" in the database, a scan of the table
+ * - word: the number 4242 exactly, plus up to 64 longer numbers starting with it
+ * - prefix: "produ", a prefix of a word every product has; the ranking stops
+ *   after the first 21 products, which already have the best possible score
+ * - typo: "prodcut 4242", where no product matches both words well enough to
+ *   stop early, so every product is scored
+ *
+ * An index is built over the seeded table and loaded before measuring, so only
+ * the searches are timed.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="NameSearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameSearchBenchmark {
+
+    private static final int LIMIT = 21;
+
+    private static final Limit FIRST_21 = Limit.of(LIMIT);
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository repository;
+
+    private ProductNameIndex index;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        BenchmarkSupport.seedProducts(context, rows);
+        repository = context.getBean(ProductRepository.class);
+        // Built here rather than taken from the context, so that it loads the seeded rows
+        index = new ProductNameIndex(repository, context.getBean(PlatformTransactionManager.class));
+        if (index.search("product", 1).total() != rows) {
+            throw new IllegalStateException("Index does not hold the %d seeded products".formatted(rows));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> substring() {
+        return repository.findByNameContainingAllIgnoreCase(List.of("4242"), FIRST_21);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches word() {
+        return index.search("4242", LIMIT);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches prefix() {
+        return index.search("produ", LIMIT);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches typo() {
+        return index.search("prodcut 4242", LIMIT);
+    }
+}
@@ -0,0 +1,168 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import com.ezcloud.mcp.server.service.ProductNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures typo-tolerant name searches over a dictionary of many distinct words.
+ *
+ * NameSearchBenchmark's "Product N" names put one letter word in the index, so
+ * they say little about the typo lookup, which walks the words spelled like the
+ * query word. Here each of 200,000 products is named with three words drawn
+ * from a vocabulary of made-up words of two to four syllables ("kalomir",
+ * "tesuva"), common words far more often than rare ones, as in real catalogs.
+ * Each query misspells a word of six letters or more by swapping its second
+ * and third letters:
+ * - commonTypo: the most frequent such word of the vocabulary
+ * - rareTypo: such a word ranked a twentieth of the way down the vocabulary,
+ *   which names about ten products with the larger vocabulary
+ * - twoWordTypo: both, as one query
+ * - unknownWord: a word that is nowhere near any word of the vocabulary
+ *
+ * An index is built over the seeded table and loaded before measuring, so only
+ * the searches are timed.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="NameTypoBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NameTypoBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    private static final int LIMIT = 21;
+
+    private static final String[] ONSETS = {"", "b", "d", "f", "g", "k", "l", "m", "n", "p", "r", "s", "t", "v", "z",
+            "br", "st", "tr"};
+
+    private static final String[] VOWELS = {"a", "e", "i", "o", "u"};
+
+    @Param({"10000", "100000"})
+    private int vocabulary;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductNameIndex index;
+
+    private String commonTypo;
+
+    private String rareTypo;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        var random = new Random(42);
+        var words = vocabulary(random);
+        seedNames(context.getBean(JdbcTemplate.class), words, random);
+        // Built here rather than taken from the context, so that it loads the seeded rows
+        index = new ProductNameIndex(context.getBean(ProductRepository.class),
+                context.getBean(PlatformTransactionManager.class));
+        commonTypo = swapLetters(typoTarget(words, 0));
+        rareTypo = swapLetters(typoTarget(words, words.size() / 20));
+        if (index.search(commonTypo, 1).total() == 0 || index.search(rareTypo, 1).total() == 0) {
+            throw new IllegalStateException("Typo queries match no products");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches commonTypo() {
+        return index.search(commonTypo, LIMIT);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches rareTypo() {
+        return index.search(rareTypo, LIMIT);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches twoWordTypo() {
+        return index.search(commonTypo + " " + rareTypo, LIMIT);
+    }
+
+    @Benchmark
+    public ProductNameIndex.Matches unknownWord() {
+        return index.search("kxqwjv", LIMIT);
+    }
+
+    private List<String> vocabulary(Random random) {
+        var words = new LinkedHashSet<String>();
+        while (words.size() < vocabulary) {
+            var word = new StringBuilder();
+            for (int syllables = 2 + random.nextInt(3); syllables > 0; syllables--) {
+                word.append(ONSETS[random.nextInt(ONSETS.length)]).append(VOWELS[random.nextInt(VOWELS.length)]);
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Replaces the sample data with products named after three vocabulary words,
+     * picked with a log-uniform rank, so that word frequencies fall off roughly
+     * as in Zipf's law.
+     */
+    private static void seedNames(JdbcTemplate jdbc, List<String> words, Random random) {
+        jdbc.update("DELETE FROM products");
+        var rows = new ArrayList<Object[]>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            var name = String.join(" ", pick(words, random), pick(words, random), pick(words, random));
+            rows.add(new Object[]{name});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO products (id, name, category, category_key, price, stock)
+                VALUES (NEXT VALUE FOR products_seq, ?, 'Category', 'category', 9.99, 1)
+                """, rows);
+    }
+
+    private static String pick(List<String> words, Random random) {
+        int rank = (int) Math.pow(words.size(), random.nextDouble()) - 1;
+        return words.get(rank);
+    }
+
+    /**
+     * The first word from the given rank on that is long enough to be matched
+     * with two typos and whose second and third letters differ.
+     */
+    private static String typoTarget(List<String> words, int from) {
+        for (var word : words.subList(from, words.size())) {
+            if (word.length() >= 6 && word.charAt(1) != word.charAt(2)) {
+                return word;
+            }
+        }
+        throw new IllegalStateException("No word to misspell");
+    }
+
+    private static String swapLetters(String word) {
+        return word.charAt(0) + String.valueOf(word.charAt(2)) + word.charAt(1) + word.substring(3);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.service.ProductFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering 10,000 product rows with String.formatted against ProductFormatter.
+ *
+ * Both variants produce the same text; the allocation per 10k rows is reported
+ * as gc.alloc.rate.norm by the GC profiler the benchmark profile enables.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="ProductFormatterBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductFormatterBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private static final String DETAILS_FORMAT = """
+            - %s (ID: %d)
+              Category: %s
+              Price: $%.2f
+              Stock: %d units
+            """;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final List<Product> products = new ArrayList<>(ROWS);
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            var product = new Product("Product-" + i, "Category-" + i % BenchmarkSupport.CATEGORIES,
+                    (i * 7919 % 100_000) / 100.0, i % 500);
+            product.setId((long) i + 1);
+            products.add(product);
+        }
+    }
+
+    /**
+     * The multi-line getAllProducts layout, one String.formatted call per row.
+     */
+    @Benchmark
+    public String detailsWithStringFormatted() {
+        var rows = new StringBuilder();
+        for (var p : products) {
+            if (!rows.isEmpty()) {
+                rows.append(LINE_SEPARATOR);
+            }
+            rows.append(DETAILS_FORMAT.formatted(p.getName(), p.getId(), p.getCategory(), p.getPrice(), p.getStock()));
+        }
+        return rows.toString();
+    }
+
+    /**
+     * The multi-line getAllProducts layout, appended by ProductFormatter into a pooled builder.
+     */
+    @Benchmark
+    public String detailsWithProductFormatter() {
+        var rows = ProductFormatter.borrowBuilder();
+        for (var p : products) {
+            if (!rows.isEmpty()) {
+                rows.append(LINE_SEPARATOR);
+            }
+            ProductFormatter.appendDetails(rows, p);
+        }
+        return ProductFormatter.release(rows);
+    }
+
+    /**
+     * The single-line searchByCategory layout, one String.formatted call per row.
+     */
+    @Benchmark
+    public String categoryRowWithStringFormatted() {
+        var rows = new StringBuilder();
+        for (var p : products) {
+            if (!rows.isEmpty()) {
+                rows.append(LINE_SEPARATOR);
+            }
+            rows.append("- %s (ID: %d) - $%.2f - Stock: %d".formatted(p.getName(), p.getId(), p.getPrice(), p.getStock()));
+        }
+        return rows.toString();
+    }
+
+    /**
+     * The single-line searchByCategory layout, appended by ProductFormatter into a pooled builder.
+     */
+    @Benchmark
+    public String categoryRowWithProductFormatter() {
+        var rows = ProductFormatter.borrowBuilder();
+        for (var p : products) {
+            if (!rows.isEmpty()) {
+                rows.append(LINE_SEPARATOR);
+            }
+            ProductFormatter.appendCategoryRow(rows, p);
+        }
+        return ProductFormatter.release(rows);
+    }
+}
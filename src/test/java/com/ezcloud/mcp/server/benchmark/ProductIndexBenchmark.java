@@ -0,0 +1,83 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares category and price lookups with and without the products table indexes.
+ *
+ * With indexed=false the indexes declared on the Product entity are dropped after
+ * seeding, so H2 falls back to a full table scan; the gap between the two runs is
+ * the scan-vs-seek cost at each catalog size.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="ProductIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductRepository repository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        BenchmarkSupport.seedProducts(context, rows);
+        if (!indexed) {
+            var jdbc = context.getBean(JdbcTemplate.class);
+            jdbc.execute("DROP INDEX idx_products_category_key_price");
+            jdbc.execute("DROP INDEX idx_products_category_key");
+            jdbc.execute("DROP INDEX idx_products_price");
+        }
+        repository = context.getBean(ProductRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * One category out of 1000, i.e. 0.1% of the catalog.
+     */
+    @Benchmark
+    public List<Product> findByCategory() {
+        return repository.findByCategoryKey("category-7");
+    }
+
+    /**
+     * Products under $1.00, i.e. 0.1% of the catalog.
+     */
+    @Benchmark
+    public List<Product> findByPriceLessThan() {
+        return repository.findByPriceLessThan(1.0);
+    }
+}
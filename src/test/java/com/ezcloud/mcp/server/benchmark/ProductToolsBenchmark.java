@@ -0,0 +1,233 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks every ProductService tool at several catalog sizes.
+ *
+ * Tools are invoked through the same ToolCallbacks the MCP server uses, so each
+ * measurement covers JSON argument parsing, the database query, response formatting
+ * and result serialization. Every benchmark reports throughput and a latency
+ * distribution (p50, p90, p99, p99.9, ...); the benchmark profile adds the GC
+ * profiler for the allocation rate per call.
+ *
+ * With caches=false the product and response caches are disabled, so every call
+ * reaches the database; with caches=true repeated calls are served from memory.
+ *
+ * The product name index is off by default, and would load as the context
+ * starts, before the catalog is seeded, so searchProductsByName measures the
+ * substring query used without it; NameSearchBenchmark measures the index.
+ *
+ * getAllProducts renders the whole catalog and dominates the run time at 1M rows;
+ * leave it out with e.g. -Djmh.args="ProductToolsBenchmark.(?!getAll)".
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="ProductToolsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductToolsBenchmark {
+
+    private static final int BULK_ROWS = 100;
+
+    private static final Pattern ADDED_ID = Pattern.compile("ID: (\\d+)");
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean caches;
+
+    private ConfigurableApplicationContext context;
+
+    private JdbcTemplate jdbc;
+
+    private Map<String, ToolCallback> tools;
+
+    private long productId;
+
+    private int stock;
+
+    private String bulkAdd;
+
+    private String bulkUpsert;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkSupport.startContext(
+                "product-server.cache.enabled=" + caches,
+                "product-server.response-cache.enabled=" + caches);
+        BenchmarkSupport.seedProducts(context, rows);
+        jdbc = context.getBean(JdbcTemplate.class);
+        tools = Arrays.stream(context.getBean(ToolCallbackProvider.class).getToolCallbacks())
+                .collect(Collectors.toMap(tool -> tool.getToolDefinition().name(), Function.identity()));
+        productId = jdbc.queryForObject("SELECT id FROM products ORDER BY id OFFSET ? ROWS FETCH FIRST 1 ROW ONLY",
+                Long.class, rows / 2);
+        bulkAdd = bulkArguments("Bench add");
+        bulkUpsert = bulkArguments("Bench upsert");
+    }
+
+    private static String bulkArguments(String namePrefix) {
+        return IntStream.range(0, BULK_ROWS)
+                .mapToObj(i -> "{\"name\":\"%s %d\",\"category\":\"Bench\",\"price\":%d.99,\"stock\":%d}"
+                        .formatted(namePrefix, i, 10 + i, i))
+                .collect(Collectors.joining(",", "{\"products\":[", "]}"));
+    }
+
+    /**
+     * Starts every iteration from the seeded catalog: removes any rows a write
+     * benchmark left behind, e.g. when an iteration ended between an add and
+     * its delete, and the rows upsertProducts added.
+     */
+    @Setup(Level.Iteration)
+    public void removeAddedProducts() {
+        jdbc.update("DELETE FROM products WHERE name LIKE 'Bench add%' OR name LIKE 'Bench upsert%'");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private String call(String tool, String arguments) {
+        return tools.get(tool).call(arguments);
+    }
+
+    @Benchmark
+    public String getAllProducts() {
+        return call("getAllProducts", "{}");
+    }
+
+    @Benchmark
+    public String getProductsPage() {
+        return call("getProductsPage", "{\"pageSize\":50}");
+    }
+
+    @Benchmark
+    public String getProductById() {
+        return call("getProductById", "{\"id\":%d}".formatted(productId));
+    }
+
+    /**
+     * One category out of 1000, i.e. 0.1% of the catalog.
+     */
+    @Benchmark
+    public String searchByCategory() {
+        return call("searchByCategory", "{\"category\":\"Category-7\"}");
+    }
+
+    /**
+     * Three categories out of 1000, i.e. 0.3% of the catalog.
+     */
+    @Benchmark
+    public String searchByCategories() {
+        return call("searchByCategories", "{\"categories\":[\"Category-7\",\"Category-42\",\"Category-999\"]}");
+    }
+
+    /**
+     * Categories 990-999, i.e. 1% of the catalog, spelled in another case.
+     */
+    @Benchmark
+    public String searchByCategoryPrefix() {
+        return call("searchByCategoryPrefix", "{\"prefix\":\"CATEGORY-99\"}");
+    }
+
+    @Benchmark
+    public String countProductsByCategory() {
+        return call("countProductsByCategory", "{}");
+    }
+
+    /**
+     * Products under $1.00, i.e. 0.1% of the catalog.
+     */
+    @Benchmark
+    public String findProductsUnderPrice() {
+        return call("findProductsUnderPrice", "{\"maxPrice\":1.0}");
+    }
+
+    /**
+     * The 20 cheapest products between $250 and $750, a range holding half the catalog.
+     */
+    @Benchmark
+    public String findProductsInPriceRange() {
+        return call("findProductsInPriceRange", "{\"minPrice\":250.0,\"maxPrice\":750.0,\"limit\":20}");
+    }
+
+    /**
+     * Products whose name contains "4242", 20 at most.
+     */
+    @Benchmark
+    public String searchProductsByName() {
+        return call("searchProductsByName", "{\"query\":\"4242\",\"limit\":20}");
+    }
+
+    /**
+     * Alternates the stock of one product, so every call is a real update.
+     */
+    @Benchmark
+    public String updateProduct() {
+        stock = 1 - stock;
+        return call("updateProduct",
+                "{\"id\":%d,\"name\":\"Bench update\",\"category\":\"Bench\",\"price\":9.99,\"stock\":%d}"
+                        .formatted(productId, stock));
+    }
+
+    /**
+     * addProduct followed by deleteProduct of the new row.
+     */
+    @Benchmark
+    public String addAndDeleteProduct() {
+        var added = call("addProduct", "{\"name\":\"Bench add\",\"category\":\"Bench\",\"price\":9.99,\"stock\":1}");
+        var id = ADDED_ID.matcher(added);
+        if (!id.find()) {
+            throw new IllegalStateException("Unexpected addProduct result: " + added);
+        }
+        return call("deleteProduct", "{\"id\":%s}".formatted(id.group(1)));
+    }
+
+    /**
+     * addProducts of 100 rows, followed by one DELETE of those rows (by name, through
+     * idx_products_name), so the table does not grow while the iteration runs.
+     */
+    @Benchmark
+    public String addAndDeleteProducts() {
+        var added = call("addProducts", bulkAdd);
+        jdbc.update("DELETE FROM products WHERE name LIKE 'Bench add %'");
+        return added;
+    }
+
+    /**
+     * The same 100 names every call, so after the first call all rows are updates.
+     */
+    @Benchmark
+    public String upsertProducts() {
+        return call("upsertProducts", bulkUpsert);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ezcloud.mcp.server.benchmark;
+
+import com.ezcloud.mcp.server.tool.InstrumentedToolCallback;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what InstrumentedToolCallback adds to every tool call.
+ *
+ * A trivial tool is called directly (bareCall) and through the decorator
+ * (instrumentedCall), so the difference is the cost of metrics, the correlation
+ * ID and MDC, and the per-call log line. With logging=off the application runs
+ * with its default logback configuration (everything off); with logging=file the
+ * file-logging profile is active and each call hands a structured event to the
+ * async file appender. Events beyond the appender's queue are dropped rather than
+ * blocking, so this measures the cost on the calling thread, not disk throughput.
+ *
+ * Run with: ./mvnw -Pbenchmark test -DskipTests -Djmh.args="ToolCallLoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToolCallLoggingBenchmark {
+
+    private static final String INPUT = "{\"id\":1}";
+
+    @Param({"off", "file"})
+    private String logging;
+
+    private ConfigurableApplicationContext context;
+
+    private ToolCallback bare;
+
+    private ToolCallback instrumented;
+
+    @Setup
+    public void setUp() {
+        context = "file".equals(logging)
+                ? BenchmarkSupport.startContext(
+                        "spring.profiles.active=file-logging",
+                        "logging.file.name=target/benchmark/tool-calls.log")
+                : BenchmarkSupport.startContext();
+        var definition = ToolDefinition.builder()
+                .name("constant")
+                .description("Returns a fixed response")
+                .inputSchema("{}")
+                .build();
+        bare = new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return definition;
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return "\"Product found\"";
+            }
+        };
+        instrumented = InstrumentedToolCallback.instrument(context.getBean(MeterRegistry.class), bare).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The tool alone, as the baseline.
+     */
+    @Benchmark
+    public String bareCall() {
+        return bare.call(INPUT);
+    }
+
+    /**
+     * The tool through InstrumentedToolCallback.
+     */
+    @Benchmark
+    public String instrumentedCall() {
+        return instrumented.call(INPUT);
+    }
+}
@@ -0,0 +1,34 @@
+package com.ezcloud.mcp.server.config;
+
+import com.ezcloud.mcp.server.service.ProductService;
+import com.ezcloud.mcp.server.service.ProductSpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProductToolsRuntimeHints.
+ */
+class ProductToolsRuntimeHintsTests {
+
+	/**
+	 * Verifies that the tool methods can be invoked reflectively in a native image,
+	 * that the JSON argument types can be bound, and that the logging configuration
+	 * is included as a resource.
+	 */
+	@Test
+	void registersToolMethodsArgumentTypesAndLoggingConfiguration() {
+		var hints = new RuntimeHints();
+		new ProductToolsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		var reflection = RuntimeHintsPredicates.reflection();
+		assertThat(reflection.onMethod(ProductService.class, "searchByCategory").invoke()).accepts(hints);
+		assertThat(reflection.onMethod(ProductService.class, "addProducts").invoke()).accepts(hints);
+		assertThat(reflection.onType(ProductSpec.class)).accepts(hints);
+		assertThat(reflection.onMethod(ProductSpec.class, "price").invoke()).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("logback-spring.xml")).accepts(hints);
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.ezcloud.mcp.server.load;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the key=value arguments taken by the load tools' main methods.
+ */
+final class CommandLineOptions {
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * @param args The command-line arguments, each of the form key=value
+     * @return The values by key; a repeated key keeps its last value
+     * @throws IllegalArgumentException if an argument has no key or no '='
+     */
+    static Map<String, String> parse(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value, got '%s'".formatted(arg));
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Splits a space-separated option value, such as a list of JVM options.
+     *
+     * @param value The option value, may be empty
+     * @return The non-blank parts, in order
+     */
+    static List<String> words(String value) {
+        return Arrays.stream(value.split(" "))
+                .filter(word -> !word.isBlank())
+                .toList();
+    }
+}
@@ -0,0 +1,278 @@
+package com.ezcloud.mcp.server.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal MCP client that spawns the server jar and talks JSON-RPC over its STDIO.
+ *
+ * Requests may be sent from any thread and are matched to their responses by ID
+ * on a single reader thread, so many calls can be in flight at once. Server stderr
+ * is redirected to a file, as an MCP client would do.
+ */
+final class McpStdioClient implements AutoCloseable {
+
+    private static final String PROTOCOL_VERSION = "2024-11-05";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final Process process;
+
+    private final Writer stdin;
+
+    private final Thread reader;
+
+    private McpStdioClient(Process process) {
+        this.process = process;
+        this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        this.reader = new Thread(this::readResponses, "mcp-stdio-reader");
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    /**
+     * Starts the server jar in a new JVM.
+     *
+     * @param jar       The executable server jar
+     * @param jvmArgs   Extra JVM options, e.g. heap size or system properties
+     * @param stderrLog File receiving the server's stderr
+     * @return A client connected to the new server process
+     */
+    static McpStdioClient start(Path jar, List<String> jvmArgs, Path stderrLog) {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        return start(command, stderrLog);
+    }
+
+    /**
+     * Starts the server with an arbitrary command line, e.g. a native executable.
+     *
+     * @param command   The executable followed by its arguments
+     * @param stderrLog File receiving the server's stderr
+     * @return A client connected to the new server process
+     */
+    static McpStdioClient start(List<String> command, Path stderrLog) {
+        try {
+            var process = new ProcessBuilder(command)
+                    .redirectError(stderrLog.toFile())
+                    .start();
+            return new McpStdioClient(process);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start " + String.join(" ", command), e);
+        }
+    }
+
+    /**
+     * Performs the MCP handshake: initialize followed by notifications/initialized.
+     *
+     * @return The server's initialize result
+     */
+    JsonNode initialize() {
+        var params = mapper.createObjectNode().put("protocolVersion", PROTOCOL_VERSION);
+        params.putObject("capabilities");
+        params.putObject("clientInfo").put("name", "stdio-load-generator").put("version", "1.0");
+        var result = request("initialize", params).join();
+        notify("notifications/initialized");
+        return result;
+    }
+
+    /**
+     * Sends a tools/call request.
+     *
+     * @param tool      The tool name
+     * @param arguments The tool arguments
+     * @return The call result, completed on the reader thread
+     */
+    CompletableFuture<JsonNode> callTool(String tool, JsonNode arguments) {
+        return callTool(tool, arguments, null);
+    }
+
+    /**
+     * Sends a tools/call request that gives up after a timeout.
+     *
+     * @param tool      The tool name
+     * @param arguments The tool arguments
+     * @param timeout   How long to wait for the response, or null to wait until the server exits
+     * @return The call result, completed on the reader thread; completed with a
+     *         TimeoutException if no response arrives in time
+     */
+    CompletableFuture<JsonNode> callTool(String tool, JsonNode arguments, Duration timeout) {
+        var params = mapper.createObjectNode().put("name", tool);
+        params.set("arguments", arguments);
+        return request("tools/call", params, timeout);
+    }
+
+    /**
+     * Sends a JSON-RPC request.
+     *
+     * @param method The method name
+     * @param params The request parameters, or null
+     * @return The "result" member of the response, completed on the reader thread;
+     *         completed exceptionally if the server answers with an error or exits
+     */
+    CompletableFuture<JsonNode> request(String method, JsonNode params) {
+        return request(method, params, null);
+    }
+
+    /**
+     * Sends a JSON-RPC request that gives up after a timeout. A timed-out request
+     * is dropped from the pending map, so a late response is ignored and a slow
+     * server does not grow the map for the rest of the run.
+     *
+     * @param method  The method name
+     * @param params  The request parameters, or null
+     * @param timeout How long to wait for the response, or null to wait until the server exits
+     * @return The "result" member of the response, completed on the reader thread;
+     *         completed exceptionally if the server answers with an error, exits or times out
+     */
+    CompletableFuture<JsonNode> request(String method, JsonNode params, Duration timeout) {
+        long id = ids.incrementAndGet();
+        var response = new CompletableFuture<JsonNode>();
+        pending.put(id, response);
+        var message = message(method, params).put("id", id);
+        try {
+            send(message);
+        } catch (IOException e) {
+            pending.remove(id);
+            response.completeExceptionally(e);
+        }
+        if (timeout != null) {
+            response.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, failure) -> {
+                        if (failure instanceof TimeoutException) {
+                            pending.remove(id, response);
+                        }
+                    });
+        }
+        return response;
+    }
+
+    /**
+     * Sends a JSON-RPC notification, which has no response.
+     *
+     * @param method The method name
+     */
+    void notify(String method) {
+        try {
+            send(message(method, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectNode message(String method, JsonNode params) {
+        var message = mapper.createObjectNode().put("jsonrpc", "2.0").put("method", method);
+        if (params != null) {
+            message.set("params", params);
+        }
+        return message;
+    }
+
+    private void send(ObjectNode message) throws IOException {
+        var line = mapper.writeValueAsString(message);
+        synchronized (stdin) {
+            stdin.write(line);
+            stdin.write('\n');
+            stdin.flush();
+        }
+    }
+
+    private void readResponses() {
+        try (var lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                JsonNode message;
+                try {
+                    message = mapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    continue; // not a protocol message
+                }
+                var id = message.get("id");
+                if (id == null || !(message.has("result") || message.has("error"))) {
+                    continue; // notifications and server-to-client requests
+                }
+                var response = pending.remove(id.asLong());
+                if (response == null) {
+                    continue;
+                }
+                if (message.has("error")) {
+                    response.completeExceptionally(new IllegalStateException(message.get("error").toString()));
+                } else {
+                    response.complete(message.get("result"));
+                }
+            }
+        } catch (IOException e) {
+            // Treated like end of stream below
+        }
+        var closed = new IllegalStateException("Server closed its output");
+        pending.values().forEach(response -> response.completeExceptionally(closed));
+    }
+
+    /**
+     * Closes the server's stdin, as an MCP client does on disconnect, and waits for it to exit.
+     *
+     * @param timeout How long to wait for the process to exit
+     * @return Whether the process exited within the timeout
+     */
+    boolean closeInput(Duration timeout) throws InterruptedException {
+        try {
+            synchronized (stdin) {
+                stdin.close();
+            }
+        } catch (IOException e) {
+            // The process is already gone
+        }
+        return process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The operating system process ID of the server
+     */
+    long pid() {
+        return process.pid();
+    }
+
+    /**
+     * Kills the server straight away, without giving it a chance to shut down.
+     */
+    void destroy() throws InterruptedException {
+        process.destroyForcibly().waitFor();
+    }
+
+    /**
+     * Stops the server, forcibly if it does not exit after its stdin is closed.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        if (!closeInput(Duration.ofSeconds(10))) {
+            destroy();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ezcloud.mcp.server.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke test of the native executable, run by the native profile after the image is built.
+ *
+ * Talks to the executable over STDIO exactly like an MCP client, so it fails on
+ * missing reachability metadata for tool reflection, JSON binding, Hibernate or H2.
+ */
+@EnabledIfSystemProperty(named = "native.image", matches = ".+")
+class NativeImageIT {
+
+	/**
+	 * Verifies that the native server completes the handshake, lists the product
+	 * tools, and stores and finds a product through the database.
+	 */
+	@Test
+	void nativeServerListsToolsAndRoundTripsAProduct() throws Exception {
+		var executable = Path.of(System.getProperty("native.image"));
+		var stderrLog = executable.resolveSibling("native-smoke-stderr.log");
+		try (var client = McpStdioClient.start(List.of(executable.toString()), stderrLog)) {
+			client.initialize();
+
+			var tools = client.request("tools/list", null).join().get("tools");
+			assertThat(tools.findValuesAsText("name")).contains("searchByCategory", "addProducts");
+
+			var mapper = new ObjectMapper();
+			var added = client.callTool("addProduct", mapper.readTree(
+					"{\"name\":\"Native Smoke Widget\",\"category\":\"Smoke\",\"price\":1.5,\"stock\":3}")).join();
+			assertThat(added.path("isError").asBoolean()).isFalse();
+
+			var found = client.callTool("searchByCategory", mapper.readTree("{\"category\":\"Smoke\"}")).join();
+			assertThat(found.path("content").get(0).path("text").asText()).contains("Native Smoke Widget");
+		}
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.ezcloud.mcp.server.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long an MCP client waits for a freshly spawned server, its footprint,
+ * and how long the server takes to go away again.
+ *
+ * MCP clients start one server process per session, so cold start is paid on every
+ * launch. Each run spawns the server, performs the handshake and sends tools/list;
+ * the time from spawning the process to the tools/list response is recorded, along
+ * with the process's resident set size at that point (Linux only). The run then
+ * sends a few tool calls, a write among them, and closes the server's stdin without
+ * waiting, as a disconnecting client does; the time until the process exits is
+ * recorded, and calls left unanswered are counted as lost. Runs are repeated for
+ * each launch variant that has been built:
+ * - jar          java -jar on the packaged jar
+ * - cds          the extracted jar with the class-data archive built by the cds profile
+ * - cds+aot      the same, also using the AOT-generated bean definitions
+ * - native       the GraalVM native executable built by the native profile
+ *
+ * Options are given as key=value arguments:
+ * - jar          The packaged server jar (required)
+ * - cds          Directory holding the extracted jar and application.jsa; the cds
+ *                variants are skipped when it does not exist (default target/cds)
+ * - native       The native executable; skipped when it does not exist
+ *                (default target/product-mcp-server)
+ * - runs         Measured runs per variant (default 5)
+ * - warmup       Unmeasured runs per variant, to warm the OS file cache (default 1)
+ * - calls        Tool calls in flight when stdin is closed (default 8)
+ * - jvm          Space-separated JVM options added to every variant
+ *
+ * Run with: ./mvnw -Pcds verify -DskipTests
+ * (build the native executable first with ./mvnw -Pnative package -DskipTests to include it)
+ */
+public final class StartupBenchmark {
+
+    private final Path jar;
+
+    private final Path cds;
+
+    private final Path nativeExecutable;
+
+    private final int runs;
+
+    private final int warmup;
+
+    private final int calls;
+
+    private final List<String> jvmArgs;
+
+    private StartupBenchmark(Map<String, String> options) {
+        var jarOption = options.get("jar");
+        if (jarOption == null) {
+            throw new IllegalArgumentException("Missing jar=<path to the server jar>");
+        }
+        this.jar = Path.of(jarOption);
+        this.cds = Path.of(options.getOrDefault("cds", "target/cds"));
+        this.nativeExecutable = Path.of(options.getOrDefault("native", "target/product-mcp-server"));
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.warmup = Integer.parseInt(options.getOrDefault("warmup", "1"));
+        this.calls = Integer.parseInt(options.getOrDefault("calls", "8"));
+        this.jvmArgs = CommandLineOptions.words(options.getOrDefault("jvm", ""));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark(CommandLineOptions.parse(args)).run(System.out);
+    }
+
+    private void run(PrintStream out) throws Exception {
+        var stderrLog = Path.of("target/load/startup-stderr.log");
+        Files.createDirectories(stderrLog.getParent());
+
+        var results = new ArrayList<String>();
+        results.add(measure(out, "jar", java(List.of("-jar", jar.toString())), stderrLog));
+        var archive = cds.resolve("application.jsa");
+        var extractedJar = cds.resolve(jar.getFileName());
+        if (Files.exists(archive) && Files.exists(extractedJar)) {
+            var sharedArchive = "-XX:SharedArchiveFile=" + archive;
+            results.add(measure(out, "cds",
+                    java(List.of(sharedArchive, "-jar", extractedJar.toString())), stderrLog));
+            results.add(measure(out, "cds+aot",
+                    java(List.of(sharedArchive, "-Dspring.aot.enabled=true", "-jar", extractedJar.toString())),
+                    stderrLog));
+        } else {
+            out.printf("No class-data archive in %s, build it with ./mvnw -Pcds package%n", cds);
+        }
+        if (Files.isExecutable(nativeExecutable)) {
+            results.add(measure(out, "native", List.of(nativeExecutable.toString()), stderrLog));
+        } else {
+            out.printf("No native executable at %s, build it with ./mvnw -Pnative package%n", nativeExecutable);
+        }
+
+        out.printf("%nTime to first tools/list response (ms), RSS at that point (MB), time from closing stdin"
+                + " to exit (ms) and calls left unanswered, over %d runs%n", runs);
+        out.printf("%-10s %8s %8s %8s %8s %8s %8s%n", "variant", "min", "median", "max", "rss", "exit", "lost");
+        results.forEach(out::println);
+    }
+
+    private List<String> java(List<String> args) {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(args);
+        return command;
+    }
+
+    private String measure(PrintStream out, String variant, List<String> command, Path stderrLog)
+            throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            startAndStop(command, stderrLog);
+        }
+        var millis = new long[runs];
+        var rssKb = new long[runs];
+        var exitMillis = new long[runs];
+        int lost = 0;
+        for (int i = 0; i < runs; i++) {
+            var sample = startAndStop(command, stderrLog);
+            millis[i] = sample.millis();
+            rssKb[i] = sample.rssKb();
+            exitMillis[i] = sample.exitMillis();
+            lost += sample.lostCalls();
+            out.printf("%s run %d: %d ms, RSS %d MB, exit %d ms, %d calls lost%n", variant, i + 1, millis[i],
+                    rssKb[i] / 1024, exitMillis[i], sample.lostCalls());
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        Arrays.sort(exitMillis);
+        return "%-10s %8d %8d %8d %8d %8d %8d".formatted(variant, millis[0], millis[runs / 2], millis[runs - 1],
+                rssKb[runs / 2] / 1024, exitMillis[runs / 2], lost);
+    }
+
+    private Sample startAndStop(List<String> command, Path stderrLog) throws Exception {
+        long spawned = System.nanoTime();
+        var client = McpStdioClient.start(command, stderrLog);
+        try {
+            client.initialize();
+            client.request("tools/list", null).join();
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - spawned);
+            long rssKb = residentSetKb(client.pid());
+
+            var mapper = new ObjectMapper();
+            var pending = new ArrayList<CompletableFuture<JsonNode>>();
+            pending.add(client.callTool("addProduct", mapper.readTree(
+                    "{\"name\":\"Shutdown Widget\",\"category\":\"Benchmark\",\"price\":1.0,\"stock\":1}")));
+            for (int i = 1; i < calls; i++) {
+                pending.add(client.callTool("searchByCategory", mapper.readTree("{\"category\":\"Electronics\"}")));
+            }
+            long closing = System.nanoTime();
+            if (!client.closeInput(Duration.ofSeconds(60))) {
+                throw new IllegalStateException("Server did not exit within 60 s of closing its stdin");
+            }
+            long exitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - closing);
+            int lost = (int) pending.stream().filter(call -> call.isCompletedExceptionally() || !call.isDone()).count();
+            return new Sample(millis, rssKb, exitMillis, lost);
+        } finally {
+            client.destroy();
+        }
+    }
+
+    /**
+     * Reads VmRSS from /proc; returns 0 where that is not available.
+     */
+    private static long residentSetKb(long pid) throws IOException {
+        var status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        try (var lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(0);
+        }
+    }
+
+    private record Sample(long millis, long rssKb, long exitMillis, int lostCalls) {
+    }
+}
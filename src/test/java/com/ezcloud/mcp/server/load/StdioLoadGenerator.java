@@ -0,0 +1,184 @@
+package com.ezcloud.mcp.server.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the packaged server over STDIO and measures what an MCP client experiences.
+ *
+ * Spawns the server jar, performs the MCP handshake, then sends tools/call requests
+ * at a fixed rate with at most "concurrency" calls outstanding. Latency is measured
+ * from the moment each call was scheduled to be sent, so time spent waiting for a
+ * free concurrency slot counts against the server (no coordinated omission). After
+ * a warm-up the results are printed as p50/p90/p99/p99.9 latency and throughput,
+ * followed by the full HdrHistogram percentile distribution, which is also written
+ * to the output file for plotting.
+ *
+ * Options are given as key=value arguments:
+ * - jar          The server jar (required)
+ * - tool         The tool to call (default searchByCategory)
+ * - arguments    The tool arguments as JSON (default {"category":"Books"})
+ * - rate         Calls per second; 0 sends as fast as the concurrency allows (default 100)
+ * - concurrency  Maximum outstanding calls (default 8)
+ * - warmup       Warm-up time whose calls are not recorded (default 10s)
+ * - duration     Measured time (default 30s)
+ * - timeout      Time after which an unanswered call counts as an error (default 30s)
+ * - jvm          Space-separated JVM options for the server, e.g. "-Xmx256m -XX:+UseSerialGC"
+ * - output       HdrHistogram percentile distribution file (default target/load/latency.hgrm)
+ *
+ * Run with: ./mvnw -Pload package -DskipTests -Dload.args="rate=500 concurrency=16"
+ */
+public final class StdioLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path jar;
+
+    private final String tool;
+
+    private final JsonNode arguments;
+
+    private final double rate;
+
+    private final int concurrency;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final Duration timeout;
+
+    private final List<String> jvmArgs;
+
+    private final Path output;
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private StdioLoadGenerator(Map<String, String> options) throws IOException {
+        var jarOption = options.get("jar");
+        if (jarOption == null) {
+            throw new IllegalArgumentException("Missing jar=<path to the server jar>");
+        }
+        this.jar = Path.of(jarOption);
+        this.tool = options.getOrDefault("tool", "searchByCategory");
+        this.arguments = mapper.readTree(options.getOrDefault("arguments", "{\"category\":\"Books\"}"));
+        this.rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        this.timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "30s"));
+        this.jvmArgs = CommandLineOptions.words(options.getOrDefault("jvm", ""));
+        this.output = Path.of(options.getOrDefault("output", "target/load/latency.hgrm"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StdioLoadGenerator(CommandLineOptions.parse(args)).run(System.out);
+    }
+
+    private void run(PrintStream out) throws Exception {
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        var stderrLog = output.resolveSibling("server-stderr.log");
+
+        long spawned = System.nanoTime();
+        try (var client = McpStdioClient.start(jar, jvmArgs, stderrLog)) {
+            client.initialize();
+            long initialized = System.nanoTime();
+            client.request("tools/list", null).join();
+            long listed = System.nanoTime();
+            out.printf("Server ready: initialize after %d ms, first tools/list after %d ms%n",
+                    TimeUnit.NANOSECONDS.toMillis(initialized - spawned),
+                    TimeUnit.NANOSECONDS.toMillis(listed - spawned));
+
+            out.printf("Calling %s %s at %s with concurrency %d: %ds warm-up, %ds measured%n",
+                    tool, arguments, rate > 0 ? rate + " calls/s" : "full speed", concurrency,
+                    warmup.toSeconds(), duration.toSeconds());
+            long measuredCalls = drive(client);
+
+            out.printf("%nCalls: %d, errors: %d, timeouts: %d, throughput: %.1f calls/s%n",
+                    measuredCalls, errors.get(), timeouts.get(), measuredCalls / (duration.toNanos() / 1e9));
+            out.printf("Latency (ms): p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f%n%n",
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                    latencies.getMaxValue() / 1000.0);
+            latencies.outputPercentileDistribution(out, 1000.0);
+            try (var file = new PrintStream(Files.newOutputStream(output))) {
+                latencies.outputPercentileDistribution(file, 1000.0);
+            }
+            out.printf("%nPercentile distribution (ms) written to %s%n", output);
+        }
+    }
+
+    /**
+     * Sends calls until warm-up and measurement time have passed and returns the
+     * number of calls recorded.
+     */
+    private long drive(McpStdioClient client) throws InterruptedException {
+        var slots = new Semaphore(concurrency);
+        var recorded = new AtomicLong();
+        long intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        long scheduled = start;
+        while (scheduled < end) {
+            if (intervalNanos > 0) {
+                long wait;
+                while ((wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            slots.acquire();
+            long intended = intervalNanos > 0 ? scheduled : System.nanoTime();
+            boolean measured = intended >= measureFrom;
+            client.callTool(tool, arguments, timeout)
+                    .whenComplete((result, failure) -> {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                        slots.release();
+                        if (measured) {
+                            record(micros, result, failure);
+                            recorded.incrementAndGet();
+                        }
+                    });
+            scheduled = intervalNanos > 0 ? scheduled + intervalNanos : System.nanoTime();
+        }
+        if (!slots.tryAcquire(concurrency, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Calls still outstanding a minute after the run ended");
+        }
+        return recorded.get();
+    }
+
+    private void record(long micros, JsonNode result, Throwable failure) {
+        latencies.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (failure instanceof TimeoutException) {
+            timeouts.incrementAndGet();
+        } else if (failure != null || result.path("isError").asBoolean()) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
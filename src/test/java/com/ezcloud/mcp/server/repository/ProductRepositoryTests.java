@@ -0,0 +1,73 @@
+package com.ezcloud.mcp.server.repository;
+
+import com.ezcloud.mcp.server.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the persistence configuration of ProductRepository.
+ *
+ * Hibernate statistics are enabled so the tests can observe how many JDBC
+ * statements a repository call actually prepared.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ProductRepositoryTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Verifies that bulk inserts are sent as JDBC batches.
+	 *
+	 * Without batching every row prepares its own INSERT statement. With
+	 * batch_size=50 and pooled sequence IDs, 200 rows need 4 INSERT batches
+	 * plus a handful of sequence calls.
+	 */
+	@Test
+	void saveAllBatchesInserts() {
+		var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		var products = IntStream.rangeClosed(1, 200)
+				.mapToObj(i -> new Product("Batch Product " + i, "Batch", 1.0 + i, i))
+				.toList();
+
+		statistics.clear();
+		productRepository.saveAllAndFlush(products);
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+	}
+
+	/**
+	 * Verifies the name search used without the name index: every word must
+	 * occur, case is ignored and LIKE wildcards in the words are taken literally.
+	 */
+	@Test
+	void findByNameContainingAllIgnoresCaseAndEscapesWildcards() {
+		productRepository.save(new Product("100% Cotton Socks", "Clothing", 4.99, 10));
+		var limit = Limit.of(10);
+
+		assertThat(productRepository.findByNameContainingAllIgnoreCase(List.of("MOUSE"), limit))
+				.extracting(Product::getName).containsExactly("Wireless Mouse");
+		assertThat(productRepository.findByNameContainingAllIgnoreCase(List.of("0%"), limit))
+				.extracting(Product::getName).containsExactly("100% Cotton Socks");
+		assertThat(productRepository.findByNameContainingAllIgnoreCase(List.of("socks", "COTTON"), limit))
+				.extracting(Product::getName).containsExactly("100% Cotton Socks");
+		assertThat(productRepository.findByNameContainingAllIgnoreCase(List.of("cotton", "mouse"), limit)).isEmpty();
+		assertThat(productRepository.findByNameContainingAllIgnoreCase(List.of("e"), Limit.of(2))).hasSize(2);
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.CategoryCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the columnar store backend of the read tools.
+ *
+ * These tests run against the sample data loaded by DataInitializer
+ * (10 products across 4 categories).
+ */
+@SpringBootTest(properties = {
+		"product-server.store.type=columnar",
+		"product-server.response-cache.enabled=false"
+})
+class ColumnarProductStoreTests {
+
+	private static final Pattern ADDED_ID = Pattern.compile("ID: (\\d+)");
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ColumnarProductStore store;
+
+	/**
+	 * Verifies that the store holds the sample data and answers the read tools
+	 * with the same responses as the database.
+	 */
+	@Test
+	void servesReadToolsFromColumns() {
+		assertThat(store.findByCategory("Books")).extracting(Product::getName)
+				.containsExactly("Spring in Action", "Clean Code");
+		assertThat(store.findByPriceLessThan(30.0)).extracting(Product::getName)
+				.containsExactlyInAnyOrder("Wireless Mouse", "T-Shirt", "Toaster");
+		assertThat(store.findByCategory("Toys")).isEmpty();
+
+		assertThat(productService.searchByCategory("Books")).startsWith("Found 2 products in category 'Books':")
+				.contains("- Clean Code (ID: ", ") - $39.99 - Stock: 20");
+		assertThat(productService.findProductsUnderPrice(30.0)).startsWith("Found 3 products under $30.00:");
+	}
+
+	/**
+	 * Verifies that multi-category searches and counts come from the category posting lists.
+	 */
+	@Test
+	void servesCategoryQueriesFromPostingLists() {
+		assertThat(store.findByCategoryIn(List.of("Clothing", "Books", "Toys"), 10)).extracting(Product::getName)
+				.containsExactly("Spring in Action", "Clean Code", "T-Shirt", "Jeans");
+		assertThat(store.countByCategory()).containsExactly(
+				new CategoryCount("Appliances", 3), new CategoryCount("Books", 2),
+				new CategoryCount("Clothing", 2), new CategoryCount("Electronics", 3));
+		assertThat(productService.countProductsByCategory()).contains("- Books: 2 products");
+	}
+
+	/**
+	 * Verifies that the price index returns ranges in price order, ties by ID.
+	 */
+	@Test
+	void servesPriceRangesFromPriceIndex() {
+		assertThat(store.findByPriceBetween(29.99, 59.99, null, false, 3)).extracting(Product::getName)
+				.containsExactly("Wireless Mouse", "Toaster", "Clean Code");
+		assertThat(store.findByPriceBetween(Double.NEGATIVE_INFINITY, 60.0, "Appliances", true, 10))
+				.extracting(Product::getName)
+				.containsExactly("Blender", "Toaster");
+		assertThat(store.findByPriceBetween(1000.0, Double.POSITIVE_INFINITY, null, false, 10)).isEmpty();
+		assertThat(store.findByPriceBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null, true, 1))
+				.extracting(Product::getName)
+				.containsExactly("Laptop");
+
+		assertThat(productService.findProductsInPriceRange(29.99, 59.99, null, null, 3))
+				.startsWith("Found 3 products from $29.99 to $59.99, cheapest first:")
+				.endsWith("More products match; narrow the range or raise the limit to see them.");
+	}
+
+	/**
+	 * Verifies that category lookups ignore case, also across spellings of one category.
+	 */
+	@Test
+	void findsCategoriesIgnoringCase() {
+		var shouting = new Product("Loud Book", "BOOKS", 12.0, 1);
+		shouting.setId(2_000_000L);
+		store.onProductChanged(ProductChangedEvent.added(shouting));
+		try {
+			assertThat(store.findByCategory("books")).extracting(Product::getName)
+					.containsExactly("Spring in Action", "Clean Code", "Loud Book");
+			assertThat(store.findByCategoryPrefix("Bo", 10)).hasSize(3);
+			assertThat(store.findByCategoryPrefix("c", 10)).extracting(Product::getCategory).containsOnly("Clothing");
+			assertThat(store.findByCategoryIn(List.of("BOOKS", "appliances"), 10)).hasSize(6);
+			assertThat(store.findByCategoryIn(List.of("BOOKS", "appliances"), 2)).hasSize(2);
+			assertThat(store.findByPriceBetween(0.0, 20.0, "Books", false, 10)).extracting(Product::getName)
+					.containsExactly("Loud Book");
+			assertThat(store.countByCategory()).contains(new CategoryCount("BOOKS", 3));
+		} finally {
+			store.onProductChanged(ProductChangedEvent.deleted(shouting));
+		}
+		assertThat(store.countByCategory()).contains(new CategoryCount("Books", 2));
+	}
+
+	/**
+	 * Verifies that the posting lists and the price index follow rows that move:
+	 * an ID inserted before existing rows, and the compaction of many tombstones.
+	 * Events are applied directly, so the database is not involved.
+	 */
+	@Test
+	void keepsIndexesConsistentWhenRowsMove() {
+		var bulk = new ArrayList<Product>();
+		for (int i = 0; i < 2000; i++) {
+			var product = new Product("Bulk " + i, i % 2 == 0 ? "Bulk-Even" : "Bulk-Odd", (double) (i % 100), 1);
+			product.setId(1_000_000L + i);
+			bulk.add(product);
+		}
+		var early = new Product("Early", "Bulk-Odd", 0.5, 1);
+		early.setId(999_999L);
+		try {
+			bulk.forEach(product -> store.onProductChanged(ProductChangedEvent.added(product)));
+			store.onProductChanged(ProductChangedEvent.added(early));
+			// Deleting 1500 rows leaves enough tombstones to trigger a compaction
+			bulk.subList(0, 1500).forEach(product -> store.onProductChanged(ProductChangedEvent.deleted(product)));
+
+			var remaining = bulk.subList(1500, 2000);
+			assertThat(store.findByCategory("Bulk-Even")).extracting(Product::getId)
+					.containsExactlyElementsOf(remaining.stream().filter(p -> p.getId() % 2 == 0)
+							.map(Product::getId).toList());
+			assertThat(store.countByCategory()).contains(new CategoryCount("Bulk-Odd", 251));
+			assertThat(store.findByPriceBetween(0.0, 0.99, "Bulk-Odd", false, 10)).extracting(Product::getName)
+					.containsExactly("Early");
+			assertThat(store.findByPriceBetween(99.0, 99.0, null, false, 10)).extracting(Product::getName)
+					.containsExactly("Bulk 1599", "Bulk 1699", "Bulk 1799", "Bulk 1899", "Bulk 1999");
+			assertThat(store.findById(1_000_100L)).isEmpty();
+			assertThat(store.findById(1_001_600L)).hasValueSatisfying(p -> assertThat(p.getName()).isEqualTo("Bulk 1600"));
+		} finally {
+			bulk.subList(1500, 2000).forEach(product -> store.onProductChanged(ProductChangedEvent.deleted(product)));
+			store.onProductChanged(ProductChangedEvent.deleted(early));
+		}
+		assertThat(store.countByCategory()).extracting(CategoryCount::category)
+				.containsExactly("Appliances", "Books", "Clothing", "Electronics");
+	}
+
+	/**
+	 * Verifies that added, moved and deleted products are reflected once committed.
+	 */
+	@Test
+	void appliesCommittedWrites() {
+		int size = store.size();
+		var added = ADDED_ID.matcher(productService.addProduct("Chess Set", "Games", 24.5, 7));
+		assertThat(added.find()).isTrue();
+		long id = Long.parseLong(added.group(1));
+		try {
+			assertThat(store.size()).isEqualTo(size + 1);
+			assertThat(productService.getProductById(id)).contains("Name: Chess Set", "Category: Games");
+			assertThat(store.findByPriceLessThan(25.0)).extracting(Product::getId).contains(id);
+			assertThat(store.findByPriceBetween(24.5, 24.5, null, false, 10)).extracting(Product::getId)
+					.containsExactly(id);
+
+			productService.updateProduct(id, "Chess Set", "Toys", 31.0, 7);
+			assertThat(store.findByCategory("Games")).isEmpty();
+			assertThat(store.findByCategory("Toys")).extracting(Product::getId).containsExactly(id);
+			assertThat(store.countByCategory()).contains(new CategoryCount("Toys", 1))
+					.extracting(CategoryCount::category).doesNotContain("Games");
+			assertThat(store.findByPriceLessThan(25.0)).extracting(Product::getId).doesNotContain(id);
+			assertThat(store.findByPriceBetween(30.0, 40.0, null, false, 10)).extracting(Product::getName)
+					.containsExactly("Chess Set", "Clean Code");
+		} finally {
+			productService.deleteProduct(id);
+		}
+		assertThat(store.size()).isEqualTo(size);
+		assertThat(store.findById(id)).isEmpty();
+		assertThat(store.findByPriceBetween(30.0, 40.0, null, false, 10)).extracting(Product::getName)
+				.containsExactly("Clean Code");
+		assertThat(productService.getProductById(id)).isEqualTo("Error: Product with ID %d not found.".formatted(id));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProductFormatter, checked against the String.formatted output it replaces.
+ */
+class ProductFormatterTests {
+
+	/**
+	 * Verifies that prices are written exactly as "%.2f" writes them, including
+	 * values on or near a rounding boundary and values that take the fallback path.
+	 */
+	@Test
+	void appendPriceMatchesStringFormat() {
+		double[] edgeCases = {0, -0.0, 0.005, 0.015, 0.125, 0.285, 1.005, 1.15, 2.675, 9.995, 99.995, 1234.565,
+				-0.001, -2.675, 0.9999999, 9_999_999.995, 1e7, 1e300, Double.MIN_VALUE, Double.MAX_VALUE,
+				Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		for (double price : edgeCases) {
+			assertPriceMatches(price);
+		}
+
+		var random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			assertPriceMatches(random.nextInt(10_000_000) / 1000.0);
+			assertPriceMatches(random.nextDouble() * Math.pow(10, random.nextInt(9)));
+		}
+	}
+
+	/**
+	 * Verifies that locales with a different decimal separator still match String.format.
+	 */
+	@Test
+	void appendPriceFollowsDefaultLocale() {
+		var original = Locale.getDefault(Locale.Category.FORMAT);
+		try {
+			Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+			assertPriceMatches(1234.5);
+			Locale.setDefault(Locale.Category.FORMAT, Locale.forLanguageTag("ar-SA-u-nu-arab"));
+			assertPriceMatches(19.99);
+		} finally {
+			Locale.setDefault(Locale.Category.FORMAT, original);
+		}
+		assertPriceMatches(1234.5);
+	}
+
+	/**
+	 * Verifies that each row layout matches the format string it replaces, including null fields.
+	 */
+	@Test
+	void rowLayoutsMatchStringFormatted() {
+		var product = new Product("Laptop", "Electronics", 999.99, 15);
+		product.setId(7L);
+		var empty = new Product();
+
+		for (var p : new Product[]{product, empty}) {
+			assertThat(ProductFormatter.appendDetails(new StringBuilder(), p).toString()).isEqualTo("""
+					- %s (ID: %d)
+					  Category: %s
+					  Price: $%.2f
+					  Stock: %d units
+					""".formatted(p.getName(), p.getId(), p.getCategory(), p.getPrice(), p.getStock()));
+			assertThat(ProductFormatter.appendCategoryRow(new StringBuilder(), p).toString())
+					.isEqualTo("- %s (ID: %d) - $%.2f - Stock: %d".formatted(p.getName(), p.getId(), p.getPrice(), p.getStock()));
+			assertThat(ProductFormatter.appendPriceRow(new StringBuilder(), p).toString())
+					.isEqualTo("- %s - $%.2f (%s) - Stock: %d".formatted(p.getName(), p.getPrice(), p.getCategory(), p.getStock()));
+		}
+	}
+
+	private static void assertPriceMatches(double price) {
+		assertThat(ProductFormatter.appendPrice(new StringBuilder(), price).toString())
+				.as("price %s", price)
+				.isEqualTo("%.2f".formatted(price));
+	}
+
+}
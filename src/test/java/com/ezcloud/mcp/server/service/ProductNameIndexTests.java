@@ -0,0 +1,228 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the inverted index behind searchProductsByName.
+ *
+ * These tests run against the sample data loaded by DataInitializer
+ * (10 products across 4 categories).
+ */
+@SpringBootTest(properties = {
+		"product-server.name-search.index=true",
+		"product-server.response-cache.enabled=false"
+})
+class ProductNameIndexTests {
+
+	private static final Pattern ADDED_ID = Pattern.compile("ID: (\\d+)");
+
+	private static final Pattern PRODUCT_NAME = Pattern.compile("(?m)^- (.+?) \\(ID: ");
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductNameIndex index;
+
+	/**
+	 * Verifies how names are split into words and how typos are measured.
+	 */
+	@Test
+	void splitsWordsAndCountsEdits() {
+		assertThat(ProductNameIndex.words("T-Shirt (XL), 2-pack")).containsExactly("t", "shirt", "xl", "2", "pack");
+		assertThat(ProductNameIndex.words("  ")).isEmpty();
+		assertThat(ProductNameIndex.words(null)).isEmpty();
+
+		assertThat(ProductNameIndex.withinEdits("mosue", "mouse", 1)).isTrue();
+		assertThat(ProductNameIndex.withinEdits("keybord", "keyboard", 1)).isTrue();
+		assertThat(ProductNameIndex.withinEdits("blender", "blunder", 1)).isTrue();
+		assertThat(ProductNameIndex.withinEdits("toaster", "tester", 1)).isFalse();
+		assertThat(ProductNameIndex.withinEdits("toaster", "tester", 2)).isTrue();
+	}
+
+	/**
+	 * Verifies that exact matches outrank prefix matches, which outrank typos.
+	 */
+	@Test
+	void ranksExactThenPrefixThenTypoMatches() {
+		var events = new ArrayList<ProductChangedEvent>();
+		var names = new String[]{"Blunder Kit", "Blenderize Pro", "Blender Deluxe"};
+		for (int i = 0; i < names.length; i++) {
+			var product = new Product(names[i], "Appliances", 10.0, 1);
+			product.setId(3_000_000L + i);
+			events.add(ProductChangedEvent.added(product));
+		}
+		events.forEach(index::onProductChanged);
+		try {
+			var matches = index.search("blender", 3);
+			assertThat(matches.total()).isEqualTo(4);
+			// "Blender" and "Blender Deluxe" tie on score, so the lower ID wins
+			assertThat(matches.productIds()).hasSize(3).endsWith(3_000_001L).doesNotContain(3_000_000L);
+			assertThat(matches.productIds().get(1)).isEqualTo(3_000_002L);
+			assertThat(index.search("blender", 10).productIds()).last().isEqualTo(3_000_000L);
+		} finally {
+			events.forEach(event -> index.onProductChanged(ProductChangedEvent.deleted(event.after())));
+		}
+		assertThat(index.search("blunder", 10).productIds()).hasSize(1);
+		assertThat(index.search("deluxe", 10).total()).isZero();
+	}
+
+	/**
+	 * Verifies that IDs beyond the int range are indexed, and that a product
+	 * older than the newest one shifts the later rows without mixing up IDs.
+	 */
+	@Test
+	void indexesIdsOfAnySizeInAnyOrder() {
+		var mouse = index.search("mouse", 10).productIds();
+		var large = new Product("Zephyr Lamp", "Appliances", 35.0, 3);
+		large.setId(Integer.MAX_VALUE + 10L);
+		var older = new Product("Zephyr Fan", "Appliances", 25.0, 3);
+		older.setId(0L);
+		index.onProductChanged(ProductChangedEvent.added(large));
+		index.onProductChanged(ProductChangedEvent.added(older));
+		try {
+			assertThat(index.search("zephyr", 10).productIds()).containsExactly(0L, Integer.MAX_VALUE + 10L);
+			assertThat(index.search("lamp", 10).productIds()).containsExactly(Integer.MAX_VALUE + 10L);
+			assertThat(index.search("fan", 10).productIds()).containsExactly(0L);
+			assertThat(index.search("mouse", 10).productIds()).isEqualTo(mouse);
+		} finally {
+			index.onProductChanged(ProductChangedEvent.deleted(large));
+			index.onProductChanged(ProductChangedEvent.deleted(older));
+		}
+		assertThat(index.search("zephyr", 10).total()).isZero();
+	}
+
+	/**
+	 * Verifies that two updates which both read the same old name leave only
+	 * the name of the one applied last indexed, and that an update applied
+	 * after the product's deletion is ignored.
+	 */
+	@Test
+	void concurrentRenamesLeaveOneNameIndexed() {
+		var original = new Product("Quasar Lamp", "Appliances", 35.0, 3);
+		original.setId(5_000_000L);
+		var renamed = new Product("Nebula Lamp", "Appliances", 35.0, 3);
+		renamed.setId(5_000_000L);
+		var renamedAgain = new Product("Pulsar Lamp", "Appliances", 35.0, 3);
+		renamedAgain.setId(5_000_000L);
+		index.onProductChanged(ProductChangedEvent.added(original));
+		index.onProductChanged(ProductChangedEvent.updated(original, renamed));
+		// Read the product before the first rename committed
+		index.onProductChanged(ProductChangedEvent.updated(original, renamedAgain));
+		try {
+			assertThat(index.search("nebula", 10).total()).isZero();
+			assertThat(index.search("quasar", 10).total()).isZero();
+			assertThat(index.search("pulsar lamp", 10).productIds()).containsExactly(5_000_000L);
+		} finally {
+			index.onProductChanged(ProductChangedEvent.deleted(renamedAgain));
+		}
+		index.onProductChanged(ProductChangedEvent.updated(renamedAgain, renamed));
+		assertThat(index.search("nebula", 10).total()).isZero();
+		assertThat(index.search("pulsar", 10).total()).isZero();
+	}
+
+	/**
+	 * Verifies that the typo lookup, which skips every word starting with a
+	 * prefix already too far from the query word, finds the same products as
+	 * comparing the query word with each name.
+	 */
+	@Test
+	void typoLookupFindsEveryWordWithinReach() {
+		var random = new Random(7);
+		var events = new ArrayList<ProductChangedEvent>();
+		for (int i = 0; i < 400; i++) {
+			var product = new Product(randomWord(random), "Toys", 5.0, 1);
+			product.setId(4_000_000L + i);
+			events.add(ProductChangedEvent.added(product));
+		}
+		events.forEach(index::onProductChanged);
+		try {
+			for (int query = 0; query < 50; query++) {
+				var word = randomWord(random);
+				int maxEdits = word.length() <= 5 ? 1 : 2;
+				var expected = events.stream()
+						.map(ProductChangedEvent::after)
+						.filter(product -> product.getName().startsWith(word)
+								|| ProductNameIndex.withinEdits(word, product.getName(), maxEdits))
+						.map(Product::getId)
+						.toList();
+				assertThat(index.search(word, 1000).productIds()).as(word)
+						.containsExactlyInAnyOrderElementsOf(expected);
+			}
+		} finally {
+			events.forEach(event -> index.onProductChanged(ProductChangedEvent.deleted(event.after())));
+		}
+	}
+
+	/**
+	 * A word of three to eight letters from a small alphabet, starting with a
+	 * letter no word of the sample data starts with, so that near misses are common.
+	 */
+	private static String randomWord(Random random) {
+		var word = new StringBuilder("z");
+		for (int length = 2 + random.nextInt(6); length > 0; length--) {
+			word.append((char) ('a' + random.nextInt(4)));
+		}
+		return word.toString();
+	}
+
+	/**
+	 * Verifies that name searches match words, prefixes and typos, best matches first.
+	 */
+	@Test
+	void searchProductsByNameRanksBestMatchesFirst() {
+		assertThat(productService.searchProductsByName("MOUSE", null))
+				.startsWith("Found 1 products matching 'MOUSE', showing the best 1:%n%n- Wireless Mouse (ID: ".formatted());
+		assertThat(productService.searchProductsByName("mech keybord", null))
+				.contains("- Mechanical Keyboard (ID: ", "Category: Electronics");
+
+		var ranked = productService.searchProductsByName("clean code maker", null);
+		assertThat(ranked).startsWith("Found 2 products matching 'clean code maker', showing the best 2:")
+				.doesNotContain("More products match");
+		assertThat(PRODUCT_NAME.matcher(ranked).results().map(m -> m.group(1)))
+				.containsExactly("Clean Code", "Coffee Maker");
+		assertThat(productService.searchProductsByName("clean code maker", 1))
+				.startsWith("Found 2 products matching 'clean code maker', showing the best 1:")
+				.contains("- Clean Code (ID: ")
+				.endsWith("More products match; add words to the query or raise the limit to see them.");
+
+		assertThat(productService.searchProductsByName("xylophone", null))
+				.isEqualTo("No products found matching 'xylophone'.");
+		assertThat(productService.searchProductsByName(" ", null)).isEqualTo("Error: Search query cannot be empty.");
+		assertThat(productService.searchProductsByName("mouse", 0)).startsWith("Error:");
+	}
+
+	/**
+	 * Verifies that added, renamed and deleted products are reflected once committed.
+	 */
+	@Test
+	void appliesCommittedWrites() {
+		int words = index.size();
+		var added = ADDED_ID.matcher(productService.addProduct("Espresso Grinder", "Appliances", 129.0, 5));
+		assertThat(added.find()).isTrue();
+		long id = Long.parseLong(added.group(1));
+		try {
+			assertThat(index.size()).isEqualTo(words + 2);
+			assertThat(index.search("espresso", 10).productIds()).containsExactly(id);
+			assertThat(productService.searchProductsByName("grind", null)).contains("- Espresso Grinder (ID: " + id);
+
+			productService.updateProduct(id, "Burr Grinder", "Appliances", 129.0, 5);
+			assertThat(index.search("espresso", 10).total()).isZero();
+			assertThat(index.search("burr grinder", 10).productIds()).containsExactly(id);
+		} finally {
+			productService.deleteProduct(id);
+		}
+		assertThat(index.size()).isEqualTo(words);
+		assertThat(index.search("grinder", 10).total()).isZero();
+	}
+
+}
@@ -0,0 +1,343 @@
+package com.ezcloud.mcp.server.service;
+
+import com.ezcloud.mcp.server.config.ProductServerProperties;
+import com.ezcloud.mcp.server.entity.Product;
+import com.ezcloud.mcp.server.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalApplicationListenerMethodAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the MCP tools exposed by ProductService.
+ *
+ * These tests run against the sample data loaded by DataInitializer
+ * (10 products across 4 categories).
+ */
+@SpringBootTest
+class ProductServiceTests {
+
+	private static final Pattern PRODUCT_ID = Pattern.compile("\\(ID: (\\d+)\\)");
+
+	private static final Pattern PRICE_ROW_NAME = Pattern.compile("(?m)^- (.+?) - \\$");
+
+	private static final Pattern NEXT_CURSOR = Pattern.compile("Next cursor: (\\S+)");
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductCache productCache;
+
+	@Autowired
+	private ToolResponseCache responseCache;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductServerProperties properties;
+
+	/**
+	 * Verifies that the streamed category listing keeps the original response layout.
+	 */
+	@Test
+	void searchByCategoryListsMatchingProducts() {
+		var result = productService.searchByCategory("Books");
+
+		assertThat(result).startsWith("Found 2 products in category 'Books':%n%n".formatted())
+				.contains("- Clean Code (ID: ", ") - $39.99 - Stock: 20")
+				.endsWith("%n".formatted());
+		assertThat(productService.searchByCategory("Toys")).isEqualTo("No products found in category 'Toys'.");
+	}
+
+	/**
+	 * Verifies that category searches ignore case and that prefixes match whole categories.
+	 */
+	@Test
+	void categorySearchesIgnoreCase() {
+		assertThat(productService.searchByCategory("books")).startsWith("Found 2 products in category 'books':")
+				.contains("- Clean Code (ID: ");
+		assertThat(productService.searchByCategory("BOOKS")).startsWith("Found 2 products in category 'BOOKS':");
+		assertThat(productService.searchByCategories(List.of("books", "ELECTRONICS"), null))
+				.startsWith("Found 5 products");
+
+		var clothing = productService.searchByCategoryPrefix("CL", null);
+		assertThat(clothing).startsWith("Found 2 products in categories starting with 'CL':%n%n".formatted())
+				.contains("- T-Shirt - $19.99 (Clothing) - Stock: 100", "- Jeans - $59.99 (Clothing) - Stock: 75");
+		assertThat(productService.searchByCategoryPrefix("e", null)).startsWith("Found 3 products");
+		assertThat(productService.searchByCategoryPrefix("x", null))
+				.isEqualTo("No products found in categories starting with 'x'.");
+		assertThat(productService.searchByCategoryPrefix("", null)).isEqualTo("Error: Category prefix cannot be empty.");
+
+		assertThat(productService.findProductsInPriceRange(null, null, "appliances", "desc", 1))
+				.contains("- Coffee Maker - $79.99 (Appliances)");
+	}
+
+	/**
+	 * Verifies the multi-category search and the per-category counts.
+	 */
+	@Test
+	void searchByCategoriesAndCountsPerCategory() {
+		var result = productService.searchByCategories(List.of("Books", "Clothing", "Toys"), null);
+		assertThat(result).startsWith("Found 4 products in categories 'Books', 'Clothing', 'Toys':%n%n".formatted())
+				.contains("- Clean Code - $39.99 (Books) - Stock: 20", "- Jeans - $59.99 (Clothing) - Stock: 75");
+		assertThat(productService.searchByCategories(List.of("Toys"), null))
+				.isEqualTo("No products found in categories 'Toys'.");
+		assertThat(productService.searchByCategories(List.of(), null)).isEqualTo("Error: No categories given.");
+
+		var limited = productService.searchByCategories(List.of("Books", "Clothing"), 3);
+		assertThat(limited).startsWith("Found 3 products in categories 'Books', 'Clothing':")
+				.endsWith("More products match; narrow the search or raise the limit to see them.");
+		assertThat(productService.searchByCategories(List.of("Books", "Clothing"), 4)).doesNotContain("More products");
+		assertThat(productService.searchByCategoryPrefix("e", 1)).startsWith("Found 1 products")
+				.contains("More products match");
+		assertThat(productService.searchByCategoryPrefix("e", 0)).isEqualTo("Error: Limit must be at least 1.");
+
+		assertThat(productService.countProductsByCategory()).isEqualTo(String.join("%n".formatted(),
+				"Found 4 categories:",
+				"",
+				"- Appliances: 3 products",
+				"- Books: 2 products",
+				"- Clothing: 2 products",
+				"- Electronics: 3 products"));
+	}
+
+	/**
+	 * Verifies that following the cursor visits every product exactly once, in ID order.
+	 */
+	@Test
+	void getProductsPageWalksWholeInventory() {
+		var ids = new ArrayList<Long>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			var page = productService.getProductsPage(cursor, 4);
+			PRODUCT_ID.matcher(page).results().forEach(m -> ids.add(Long.parseLong(m.group(1))));
+			var next = NEXT_CURSOR.matcher(page);
+			cursor = next.find() ? next.group(1) : null;
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(ids).hasSize(10).doesNotHaveDuplicates().isSorted();
+	}
+
+	/**
+	 * Verifies that a malformed cursor is reported instead of silently restarting the listing.
+	 */
+	@Test
+	void getProductsPageRejectsInvalidCursor() {
+		assertThat(productService.getProductsPage("not-a-cursor", 4)).startsWith("Error: Invalid cursor");
+		assertThat(productService.getProductsPage(null, 0)).startsWith("Error:");
+	}
+
+	/**
+	 * Verifies that upsertProducts updates products matched by name and adds the rest.
+	 */
+	@Test
+	@Transactional
+	void upsertProductsUpdatesByNameAndAddsNewRows() {
+		var result = productService.upsertProducts(List.of(
+				new ProductSpec("Laptop", "Electronics", 899.99, 10),
+				new ProductSpec("Gaming Headset", "Electronics", 79.99, 25)));
+
+		var lines = result.lines().toList();
+		assertThat(lines.get(0)).isEqualTo("Saved 2 products: 1 added, 1 updated.");
+		assertThat(lines.get(1)).startsWith("Row 1: updated (ID: ");
+		assertThat(lines.get(2)).startsWith("Row 2: added (ID: ");
+		assertThat(productService.searchByCategory("Electronics"))
+				.contains("- Laptop (ID: ", ") - $899.99 - Stock: 10")
+				.contains("- Gaming Headset (ID: ");
+	}
+
+	/**
+	 * Verifies that one invalid row rejects the whole bulk request.
+	 */
+	@Test
+	@Transactional
+	void addProductsSavesNothingWhenAnyRowIsInvalid() {
+		var result = productService.addProducts(Arrays.asList(
+				new ProductSpec("Desk Lamp", "Home", 24.99, 12),
+				new ProductSpec("", "Home", 10.0, 1),
+				new ProductSpec("Rug", "Home", -5.0, 3)));
+
+		assertThat(result.lines().toList()).containsExactly(
+				"Error: 2 of 3 products are invalid; nothing was saved.",
+				"Row 2: Product name cannot be empty.",
+				"Row 3: Product price cannot be negative.");
+		assertThat(productService.searchByCategory("Home")).isEqualTo("No products found in category 'Home'.");
+	}
+
+	/**
+	 * Verifies that repeated reads are served from the cache and that an update
+	 * evicts both the old and the new category of the moved product.
+	 */
+	@Test
+	void updateProductEvictsCachedReads() {
+		productCache.clear();
+		var books = productService.searchByCategory("Books");
+		var matcher = Pattern.compile("- Clean Code \\(ID: (\\d+)\\)").matcher(books);
+		assertThat(matcher.find()).isTrue();
+		long id = Long.parseLong(matcher.group(1));
+
+		long hits = productCache.stats().get("products.byCategory").hitCount();
+		assertThat(productCache.findByCategory("Books")).hasValueSatisfying(rows -> assertThat(rows).hasSize(2));
+		assertThat(productCache.stats().get("products.byCategory").hitCount()).isEqualTo(hits + 1);
+		assertThat(productService.searchByCategory("Software")).startsWith("No products found");
+		assertThat(productService.getProductById(id)).contains("Name: Clean Code", "Price: $39.99");
+
+		try {
+			productService.updateProduct(id, "Clean Code", "Software", 29.99, 20);
+
+			assertThat(productService.searchByCategory("Books")).startsWith("Found 1 products")
+					.doesNotContain("Clean Code");
+			assertThat(productService.searchByCategory("Software")).contains("- Clean Code (ID: " + id + ") - $29.99");
+			assertThat(productService.getProductById(id)).contains("Category: Software", "Price: $29.99");
+		} finally {
+			productService.updateProduct(id, "Clean Code", "Books", 39.99, 20);
+		}
+		assertThat(productService.searchByCategory("Books")).isEqualTo(books);
+		assertThat(productService.getProductById(-1L)).isEqualTo("Error: Product with ID -1 not found.");
+	}
+
+	/**
+	 * Verifies that a cache load which read the rows from before a commit, and
+	 * finished after that commit was applied, does not keep those rows cached.
+	 */
+	@Test
+	void loadOverlappingCommitIsNotCached() {
+		var cleanCode = productRepository.findAll().stream()
+				.filter(product -> product.getName().equals("Clean Code"))
+				.findFirst().orElseThrow();
+		long id = cleanCode.getId();
+		var before = ProductChangedEvent.deleted(cleanCode).before();
+		var cache = new ProductCache[1];
+		// Commits a price cut after the first load under $30 has read its rows, as a concurrent update would
+		var repository = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+					Object rows;
+					try {
+						rows = method.invoke(productRepository, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+					if (method.getName().equals("findByPriceLessThan") && cache[0].stats().get("products.underPrice").missCount() == 1) {
+						productService.updateProduct(id, "Clean Code", "Books", 19.99, 20);
+						var after = productRepository.findById(id).orElseThrow();
+						cache[0].onProductChanged(ProductChangedEvent.updated(before, after));
+					}
+					return rows;
+				});
+		cache[0] = new ProductCache(repository, properties);
+
+		try {
+			assertThat(cache[0].findByPriceLessThan(30.0)).hasValueSatisfying(rows ->
+					assertThat(rows).extracting(Product::getName).doesNotContain("Clean Code"));
+			assertThat(cache[0].findByPriceLessThan(30.0)).hasValueSatisfying(rows ->
+					assertThat(rows).extracting(Product::getName).contains("Clean Code"));
+		} finally {
+			productService.updateProduct(id, "Clean Code", "Books", 39.99, 20);
+		}
+	}
+
+	/**
+	 * Verifies that a price range is returned in price order, ties by ID, cut at
+	 * the limit with a note when more products match.
+	 */
+	@Test
+	void findProductsInPriceRangeReturnsFirstProductsInPriceOrder() {
+		var cheapest = productService.findProductsInPriceRange(29.99, 59.99, null, null, 3);
+		assertThat(cheapest).startsWith("Found 3 products from $29.99 to $59.99, cheapest first:%n%n".formatted())
+				.endsWith("More products match; narrow the range or raise the limit to see them.");
+		assertThat(PRICE_ROW_NAME.matcher(cheapest).results().map(m -> m.group(1)))
+				.containsExactly("Wireless Mouse", "Toaster", "Clean Code");
+
+		var appliances = productService.findProductsInPriceRange(null, 60.0, "Appliances", "DESC", null);
+		assertThat(appliances)
+				.startsWith("Found 2 products up to $60.00 in category 'Appliances', most expensive first:")
+				.doesNotContain("More products match");
+		assertThat(PRICE_ROW_NAME.matcher(appliances).results().map(m -> m.group(1)))
+				.containsExactly("Blender", "Toaster");
+
+		assertThat(productService.findProductsInPriceRange(null, null, "Toys", null, null))
+				.isEqualTo("No products found at any price in category 'Toys'.");
+		assertThat(productService.findProductsInPriceRange(50.0, 10.0, null, null, null)).startsWith("Error:");
+		assertThat(productService.findProductsInPriceRange(null, null, null, "sideways", null))
+				.isEqualTo("Error: Invalid sort 'sideways'. Use 'asc' or 'desc'.");
+		assertThat(productService.findProductsInPriceRange(null, null, null, null, 0)).startsWith("Error:");
+	}
+
+	/**
+	 * Verifies that without the name index, name searches list the products
+	 * whose name contains every query word, in ID order, as the tool describes.
+	 */
+	@Test
+	void searchProductsByNameMatchesEveryWord() {
+		assertThat(productService.searchProductsByName("mech key", null))
+				.startsWith("Found 1 products matching 'mech key':%n%n- Mechanical Keyboard (ID: ".formatted());
+		assertThat(productService.searchProductsByName("MOUSE", null))
+				.startsWith("Found 1 products matching 'MOUSE':%n%n- Wireless Mouse (ID: ".formatted());
+		assertThat(productService.searchProductsByName("er", 1))
+				.startsWith("Found 1 products matching 'er':")
+				.endsWith("More products match; add words to the query or raise the limit to see them.");
+		assertThat(productService.searchProductsByName("mech keybord", null))
+				.isEqualTo("No products found matching 'mech keybord'.");
+		assertThat(productService.searchProductsByName(" ", null)).isEqualTo("Error: Search query cannot be empty.");
+	}
+
+	/**
+	 * Verifies that a repeated listing returns the cached response text until a
+	 * write moves the catalog to a new version.
+	 */
+	@Test
+	void repeatedListingIsServedFromResponseCacheUntilWrite() {
+		var first = productService.getAllProducts();
+		long hits = responseCache.stats().hitCount();
+		assertThat(productService.getAllProducts()).isSameAs(first);
+		assertThat(responseCache.stats().hitCount()).isEqualTo(hits + 1);
+
+		var matcher = Pattern.compile("- Clean Code \\(ID: (\\d+)\\)").matcher(first);
+		assertThat(matcher.find()).isTrue();
+		long id = Long.parseLong(matcher.group(1));
+		long version = responseCache.catalogVersion();
+		try {
+			productService.updateProduct(id, "Clean Code", "Books", 39.99, 21);
+
+			assertThat(responseCache.catalogVersion()).isGreaterThan(version);
+			assertThat(productService.getAllProducts()).isNotEqualTo(first).contains("Stock: 21 units");
+		} finally {
+			productService.updateProduct(id, "Clean Code", "Books", 39.99, 20);
+		}
+		assertThat(productService.getAllProducts()).isEqualTo(first);
+	}
+
+	/**
+	 * Verifies that the listeners holding product rows apply a committed change
+	 * before ToolResponseCache moves to a new catalog version, using the order
+	 * Spring sorts their transaction synchronizations by.
+	 */
+	@Test
+	void dataListenersRunBeforeResponseCacheVersionBump() throws NoSuchMethodException {
+		int versionBump = listenerOrder(ToolResponseCache.class);
+		for (var store : List.of(ProductCache.class, ColumnarProductStore.class, ProductNameIndex.class)) {
+			assertThat(listenerOrder(store)).as(store.getSimpleName()).isLessThan(versionBump);
+		}
+	}
+
+	private static int listenerOrder(Class<?> listener) throws NoSuchMethodException {
+		var method = listener.getMethod("onProductChanged", ProductChangedEvent.class);
+		return new TransactionalApplicationListenerMethodAdapter(listener.getSimpleName(), listener, method).getOrder();
+	}
+
+}
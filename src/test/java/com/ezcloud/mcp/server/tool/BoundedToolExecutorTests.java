@@ -0,0 +1,104 @@
+package com.ezcloud.mcp.server.tool;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BoundedToolExecutor.
+ */
+class BoundedToolExecutorTests {
+
+	/**
+	 * Verifies that calls run in parallel up to the in-flight limit and that
+	 * further calls are rejected with an error result instead of queueing.
+	 */
+	@Test
+	void rejectsCallsBeyondInFlightLimit() throws InterruptedException {
+		try (var executor = BoundedToolExecutor.platformThreads(2, 2)) {
+			var started = new CountDownLatch(2);
+			var release = new CountDownLatch(1);
+			BoundedToolExecutor.ToolCall blocking = () -> {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return new McpSchema.CallToolResult("done", false);
+			};
+
+			var first = executor.submit(blocking).toFuture();
+			var second = executor.submit(blocking).toFuture();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			var rejected = executor.submit(blocking).block(Duration.ofSeconds(5));
+			assertThat(rejected.isError()).isTrue();
+			assertThat(((McpSchema.TextContent) rejected.content().get(0)).text()).startsWith("Error: Server busy");
+
+			release.countDown();
+			assertThat(first.join().isError()).isFalse();
+			assertThat(second.join().isError()).isFalse();
+
+			var afterRelease = executor.submit(() -> new McpSchema.CallToolResult("done", false))
+					.block(Duration.ofSeconds(5));
+			assertThat(afterRelease.isError()).isFalse();
+		}
+	}
+
+	/**
+	 * Verifies that cancelling a running call does not free its slot until the
+	 * call has actually returned.
+	 */
+	@Test
+	void cancelledCallKeepsItsSlotUntilItReturns() throws InterruptedException {
+		try (var executor = BoundedToolExecutor.platformThreads(2, 1)) {
+			var started = new CountDownLatch(1);
+			var release = new CountDownLatch(1);
+			var finished = new CountDownLatch(1);
+			var running = executor.submit(() -> {
+				started.countDown();
+				// Like a JDBC call, the work does not stop when the cancel interrupts it
+				boolean interrupted = false;
+				while (release.getCount() > 0) {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				finished.countDown();
+				return new McpSchema.CallToolResult("done", false);
+			}).subscribe();
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			running.dispose();
+			var whileRunning = executor.submit(() -> new McpSchema.CallToolResult("done", false))
+					.block(Duration.ofSeconds(5));
+			assertThat(whileRunning.isError()).isTrue();
+
+			release.countDown();
+			assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+			// The slot is freed just after the call returns, so allow the worker a moment
+			McpSchema.CallToolResult afterReturn;
+			for (int attempt = 0; ; attempt++) {
+				afterReturn = executor.submit(() -> new McpSchema.CallToolResult("done", false))
+						.block(Duration.ofSeconds(5));
+				if (!afterReturn.isError() || attempt == 50) {
+					break;
+				}
+				Thread.sleep(20);
+			}
+			assertThat(afterReturn.isError()).isFalse();
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.ezcloud.mcp.server.tool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for InstrumentedToolCallback.
+ */
+class InstrumentedToolCallbackTests {
+
+	/**
+	 * Verifies that successful calls, error results and exceptions are timed and
+	 * counted separately, and that response sizes and reported rows are recorded.
+	 */
+	@Test
+	void recordsOutcomeSizeAndRowsOfEachCall() {
+		var registry = new SimpleMeterRegistry();
+		var tool = InstrumentedToolCallback.instrument(registry, stub(input -> switch (input) {
+			case "ok" -> {
+				ToolCallContext.addRowsScanned(3);
+				yield "\"3 products\"";
+			}
+			case "missing" -> "\"Error: Product with ID 9 not found.\"";
+			default -> throw new IllegalStateException("boom");
+		})).get(0);
+
+		assertThat(tool.call("ok")).isEqualTo("\"3 products\"");
+		tool.call("missing");
+		assertThatThrownBy(() -> tool.call("fail")).isInstanceOf(IllegalStateException.class);
+		ToolCallContext.addRowsScanned(100); // outside a call: ignored
+
+		assertThat(registry.get("mcp.tool.calls").tags("tool", "stub", "outcome", "success").timer().count())
+				.isEqualTo(1);
+		assertThat(registry.get("mcp.tool.calls").tags("tool", "stub", "outcome", "error").timer().count())
+				.isEqualTo(2);
+		assertThat(registry.get("mcp.tool.errors").tags("kind", "error_result").counter().count()).isEqualTo(1);
+		assertThat(registry.get("mcp.tool.errors").tags("kind", "exception").counter().count()).isEqualTo(1);
+		assertThat(registry.get("mcp.tool.rows.scanned").summary().totalAmount()).isEqualTo(3);
+		assertThat(registry.get("mcp.tool.response.size").summary().count()).isEqualTo(2);
+	}
+
+	private static ToolCallback stub(Function<String, String> behaviour) {
+		var definition = ToolDefinition.builder()
+				.name("stub")
+				.description("Test tool")
+				.inputSchema("{}")
+				.build();
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return behaviour.apply(toolInput);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.ezcloud.mcp.server.tool;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ReadinessGatedToolCallback.
+ */
+class ReadinessGatedToolCallbackTests {
+
+	/**
+	 * Verifies that a call made before the future completes waits for it and then
+	 * reaches the tool.
+	 */
+	@Test
+	void callWaitsUntilReady() throws Exception {
+		var ready = new CompletableFuture<Void>();
+		var tool = ReadinessGatedToolCallback.gate(ready, Duration.ofSeconds(10), stub()).get(0);
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			var result = executor.submit(() -> tool.call("{}"));
+			Thread.sleep(100);
+			assertThat(result).isNotDone();
+
+			ready.complete(null);
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("\"called\"");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Verifies that calls are answered with an error result when loading takes
+	 * longer than the timeout or fails.
+	 */
+	@Test
+	void callFailsWithErrorResultWhenNotReady() {
+		var tool = ReadinessGatedToolCallback.gate(new CompletableFuture<>(), Duration.ofMillis(50), stub()).get(0);
+		assertThat(tool.call("{}")).startsWith("\"Error: The product catalog is still loading");
+
+		var failed = CompletableFuture.failedFuture(new IllegalStateException("no database"));
+		var broken = ReadinessGatedToolCallback.gate(failed, Duration.ofSeconds(10), stub()).get(0);
+		assertThat(broken.call("{}")).isEqualTo("\"Error: The product catalog could not be loaded.\"");
+	}
+
+	private static ToolCallback stub() {
+		var definition = ToolDefinition.builder()
+				.name("stub")
+				.description("Test tool")
+				.inputSchema("{}")
+				.build();
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return "\"called\"";
+			}
+		};
+	}
+}
@@ -0,0 +1,107 @@
+package com.ezcloud.mcp.server.tool;
+
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for SerializedStdioTransportProvider, run on in-memory streams.
+ */
+class SerializedStdioTransportProviderTests {
+
+	private static final String MESSAGES = """
+			{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"test","version":"1.0"}}}
+			{"jsonrpc":"2.0","method":"notifications/initialized"}
+			{"jsonrpc":"2.0","id":2,"method":"tools/call","params":{"name":"slow","arguments":{}}}
+			""";
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private McpSyncServer server;
+
+	@AfterEach
+	void closeServer() {
+		release.countDown();
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	/**
+	 * Verifies that a call still running when the input ends is answered before
+	 * the end of input is reported.
+	 */
+	@Test
+	void answersInFlightCallsAfterEndOfInput() throws Exception {
+		var output = new ByteArrayOutputStream();
+		var transport = start(output, Duration.ofSeconds(10));
+
+		var ended = CompletableFuture.runAsync(() -> {
+			try {
+				transport.awaitEndOfInput();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		Thread.sleep(300);
+		assertThat(ended).isNotDone();
+
+		release.countDown();
+		ended.get(5, TimeUnit.SECONDS);
+		assertThat(written(output)).contains("\"id\":2", "slow done");
+	}
+
+	/**
+	 * Verifies that the end of input is reported once the drain timeout has passed,
+	 * even if a call never finishes.
+	 */
+	@Test
+	void givesUpOnInFlightCallsAfterDrainTimeout() throws Exception {
+		var output = new ByteArrayOutputStream();
+		var transport = start(output, Duration.ofMillis(200));
+
+		long start = System.nanoTime();
+		transport.awaitEndOfInput();
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(elapsedMillis).isLessThan(5_000);
+		assertThat(written(output)).contains("\"id\":1").doesNotContain("\"id\":2");
+	}
+
+	private SerializedStdioTransportProvider start(ByteArrayOutputStream output, Duration drainTimeout) {
+		var input = new ByteArrayInputStream(MESSAGES.getBytes(StandardCharsets.UTF_8));
+		var transport = new SerializedStdioTransportProvider(input, output, drainTimeout);
+		var tool = new McpSchema.Tool("slow", "Waits until released", "{\"type\":\"object\"}");
+		server = McpServer.sync(transport)
+				.serverInfo("test", "1.0")
+				.tools(new McpServerFeatures.SyncToolSpecification(tool, (exchange, arguments) -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return new McpSchema.CallToolResult("slow done", false);
+				}))
+				.build();
+		return transport;
+	}
+
+	private static String written(ByteArrayOutputStream output) {
+		synchronized (output) {
+			return output.toString(StandardCharsets.UTF_8);
+		}
+	}
+}